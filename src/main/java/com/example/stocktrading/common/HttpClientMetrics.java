@@ -0,0 +1,168 @@
+package com.example.stocktrading.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RestClient 동시 진행 요청(in-flight) 수 제한 + endpoint(path)별 지연/에러 집계.
+ * permit은 응답 body를 닫을 때 반납 (body 수신 중인 요청까지 포함), 모두 사용중이면 대기 (포화 횟수/대기 시간 기록),
+ * acquire-timeout 초과 시 실패. 실제 연결 재사용은 HttpClient 내부 pool이 관리 (여기서 제어하지 않음)
+ */
+@Slf4j
+public class HttpClientMetrics implements ClientHttpRequestInterceptor {
+
+    private final String name;
+    private final int maxInFlight;
+    private final long acquireTimeoutMs;
+    private final Semaphore permits;
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    private final LongAdder saturatedCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+
+    public HttpClientMetrics(String name, int maxInFlight, long acquireTimeoutMs) {
+        this.name = name;
+        this.maxInFlight = maxInFlight;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.permits = new Semaphore(maxInFlight, true);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String endpoint = request.getMethod() + " " + request.getURI().getPath();
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint, k -> new EndpointStats());
+
+        acquire(endpoint);
+        long start = System.nanoTime();
+        boolean handedOff = false;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            if (response.getStatusCode().isError()) {
+                stats.errors.increment();
+            }
+            handedOff = true;
+            return new PermitReleasingResponse(response);
+        } catch (IOException | RuntimeException e) {
+            stats.errors.increment();
+            throw e;
+        } finally {
+            stats.record(System.nanoTime() - start); // 응답 헤더 수신까지
+            if (!handedOff) {
+                permits.release();
+            }
+        }
+    }
+
+    private void acquire(String endpoint) throws IOException {
+        if (permits.tryAcquire()) return;
+
+        saturatedCount.increment();
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IOException("[" + name + "] in-flight request limit reached: " + endpoint);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("[" + name + "] interrupted while waiting for request permit", e);
+        } finally {
+            totalWaitNanos.add(System.nanoTime() - waitStart);
+        }
+    }
+
+    public Snapshot getSnapshot() {
+        Map<String, EndpointSnapshot> endpointSnapshots = new java.util.TreeMap<>();
+        endpoints.forEach((endpoint, stats) -> endpointSnapshots.put(endpoint, stats.snapshot()));
+        return new Snapshot(
+                maxInFlight,
+                maxInFlight - permits.availablePermits(),
+                saturatedCount.sum(),
+                Duration.ofNanos(totalWaitNanos.sum()).toMillis(),
+                endpointSnapshots);
+    }
+
+    public record Snapshot(int maxInFlight, int inFlight, long saturatedCount, long totalWaitMillis,
+                           Map<String, EndpointSnapshot> endpoints) {}
+
+    public record EndpointSnapshot(long count, long errors, double avgMillis, double maxMillis) {}
+
+    /**
+     * close 시 permit 1회 반납 (RestClient는 body 변환 후 응답을 닫음)
+     */
+    private class PermitReleasingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitReleasingResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+
+    private static class EndpointStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        EndpointSnapshot snapshot() {
+            long n = count.sum();
+            return new EndpointSnapshot(n, errors.sum(),
+                    n == 0 ? 0 : totalNanos.sum() / 1e6 / n,
+                    maxNanos.get() / 1e6);
+        }
+    }
+}
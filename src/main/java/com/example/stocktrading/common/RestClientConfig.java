@@ -9,7 +9,10 @@ import org.springframework.http.MediaType;
 import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import javax.net.ssl.SSLContext;
 import java.net.http.HttpClient;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 
 @Configuration
 public class RestClientConfig {
@@ -23,9 +26,61 @@ public class RestClientConfig {
     }
 
     @Bean
-    public RestClient kisRestClient(@Value("${kis.api.base-url:https://openapi.koreainvestment.com:9443}") String baseUrl) {
+    public HttpClientMetrics kisHttpMetrics(@Value("${kis.http.max-in-flight:20}") int maxInFlight,
+                                            @Value("${kis.http.acquire-timeout-ms:2000}") long acquireTimeoutMs) {
+        return new HttpClientMetrics("KIS HTTP", maxInFlight, acquireTimeoutMs);
+    }
+
+    /**
+     * KIS 전용 HttpClient: keep-alive 연결 재사용 (JDK 내부 pool) + 기본 SSLContext 세션 캐시로 TLS 재협상 최소화.
+     * 동시 진행 요청 수는 kisHttpMetrics에서 제한 (연결 pool 크기는 JDK HttpClient가 관리)
+     */
+    @Bean
+    public HttpClient kisHttpClient(@Value("${kis.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+                                    @Value("${kis.http.http2:false}") boolean http2) throws NoSuchAlgorithmException {
+        return HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .sslContext(SSLContext.getDefault())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    @Bean
+    public RestClient kisRestClient(@Value("${kis.api.base-url:https://openapi.koreainvestment.com:9443}") String baseUrl,
+                                    @Value("${kis.http.request-timeout-ms:5000}") long requestTimeoutMs,
+                                    HttpClient kisHttpClient,
+                                    HttpClientMetrics kisHttpMetrics) {
+        // 요청 timeout = 응답 헤더 수신까지 전체 deadline (연결 대기 포함)
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(kisHttpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(requestTimeoutMs));
+
+        return RestClient.builder()
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                .requestInterceptor(kisHttpMetrics)
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+    }
+
+    /**
+     * Telegram Bot API 전용 (timeout 필수: 알림 지연이 dispatcher 전체를 막지 않도록).
+     * base-url을 바꾸면 로컬 대체 서버로 전송 가능
+     */
+    @Bean
+    public RestClient telegramRestClient(@Value("${telegram.api.base-url:https://api.telegram.org}") String baseUrl,
+                                         @Value("${telegram.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+                                         @Value("${telegram.http.request-timeout-ms:10000}") long requestTimeoutMs) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(requestTimeoutMs));
+
         return RestClient.builder()
                 .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .build();
     }
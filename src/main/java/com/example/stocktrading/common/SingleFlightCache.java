@@ -0,0 +1,111 @@
+package com.example.stocktrading.common;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * TTL 로딩 캐시 (key별 single-flight).
+ * miss 시 첫 호출자만 loader 실행, 동시 호출자는 같은 future 대기 → key당 TTL 구간 로딩 1회.
+ * 예외/cacheable 조건 불만족 값은 저장하지 않음
+ */
+public class SingleFlightCache<K, V> {
+
+    private final long ttlNanos;
+    private final Predicate<V> cacheable;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private static class Entry<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private volatile long expiresAtNanos = Long.MAX_VALUE; // 로딩 완료 시 설정
+
+        boolean isFresh(long now) {
+            return !future.isDone() || now - expiresAtNanos < 0;
+        }
+    }
+
+    public SingleFlightCache(Duration ttl, Predicate<V> cacheable) {
+        this.ttlNanos = ttl.toNanos();
+        this.cacheable = cacheable;
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        while (true) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.isFresh(System.nanoTime())) {
+                return await(entry);
+            }
+
+            Entry<V> created = new Entry<>();
+            boolean owner = entry == null
+                    ? entries.putIfAbsent(key, created) == null
+                    : entries.replace(key, entry, created);
+            if (!owner) continue; // 다른 스레드가 먼저 로딩 시작 → 그 entry 대기
+
+            try {
+                V value = loader.get();
+                created.expiresAtNanos = System.nanoTime() + ttlNanos;
+                created.future.complete(value);
+                if (!cacheable.test(value)) {
+                    entries.remove(key, created);
+                }
+                return value;
+            } catch (RuntimeException e) {
+                entries.remove(key, created);
+                created.future.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 강제 재로딩 (refresh-ahead). 기존 값이 유효하면 로딩 중에도 기존 값 제공, 만료 상태면 동시 호출자는 이 로딩 대기
+     */
+    public V refresh(K key, Supplier<V> loader) {
+        Entry<V> current = entries.get(key);
+        if (current != null && !current.future.isDone()) {
+            return await(current); // 이미 로딩중
+        }
+
+        Entry<V> created = new Entry<>();
+        if (current == null || !current.isFresh(System.nanoTime())) {
+            boolean owner = current == null
+                    ? entries.putIfAbsent(key, created) == null
+                    : entries.replace(key, current, created);
+            if (!owner) return get(key, loader);
+        }
+
+        try {
+            V value = loader.get();
+            created.expiresAtNanos = System.nanoTime() + ttlNanos;
+            created.future.complete(value);
+            if (cacheable.test(value)) {
+                entries.put(key, created);
+            } else {
+                entries.remove(key, created);
+            }
+            return value;
+        } catch (RuntimeException e) {
+            entries.remove(key, created);
+            created.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void evict(K key) {
+        entries.remove(key);
+    }
+
+    private V await(Entry<V> entry) {
+        try {
+            return entry.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.stocktrading.common;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * key hash 기반 고정 개수 lock (key별 lock 객체를 만들지 않고 같은 key는 항상 같은 lock)
+ */
+public class StripedLock {
+
+    private final ReentrantLock[] stripes;
+
+    public StripedLock(int stripeCount) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public ReentrantLock get(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[Math.floorMod(h, stripes.length)];
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.stocktrading.trading.adapter.in.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 매 분봉 마감 + offset 시각에 실행되는 사이클.
+ * 다음 실행은 항상 다음 분 경계 기준으로 예약 (실행 시간만큼 밀리지 않음),
+ * 이전 실행이 아직 진행중이면 이번 회차는 건너뜀 (다음 회차에 병합).
+ * 작업은 사이클 전용 가상 스레드에서 실행 → 다른 사이클이 느려도 trigger/실행이 밀리지 않고, KIS rate limit 대기 중 carrier 미점유
+ */
+@Slf4j
+public class BarAlignedCycle {
+
+    private static final long BAR_MILLIS = Duration.ofMinutes(1).toMillis();
+
+    private final String name;
+    private final long offsetMillis;
+    private final Runnable task;
+    private final TaskScheduler scheduler;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final LongAdder runCount = new LongAdder();
+    private final LongAdder overrunCount = new LongAdder();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+    private final AtomicLong lastDurationMillis = new AtomicLong();
+    private final AtomicLong maxDurationMillis = new AtomicLong();
+
+    public BarAlignedCycle(String name, Duration offset, Runnable task, TaskScheduler scheduler) {
+        if (offset.isNegative() || offset.toMillis() >= BAR_MILLIS) {
+            throw new IllegalArgumentException("[Scheduler] offset must be within a bar: " + offset);
+        }
+        this.name = name;
+        this.offsetMillis = offset.toMillis();
+        this.task = task;
+        this.scheduler = scheduler;
+        this.executor = Executors.newSingleThreadExecutor(
+                Thread.ofVirtual().name("cycle-" + name.toLowerCase()).factory());
+    }
+
+    public void start() {
+        scheduleNext(System.currentTimeMillis());
+        log.info("[Scheduler] {} cycle started (bar close + {}ms)", name, offsetMillis);
+    }
+
+    private void scheduleNext(long now) {
+        Instant next = Instant.ofEpochMilli(nextFireTime(now));
+        scheduler.schedule(() -> fire(next), next);
+    }
+
+    /**
+     * now 이후 첫 (분 경계 + offset)
+     */
+    long nextFireTime(long now) {
+        long fire = now - Math.floorMod(now, BAR_MILLIS) + offsetMillis;
+        return fire > now ? fire : fire + BAR_MILLIS;
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void fire(Instant scheduledAt) {
+        scheduleNext(Math.max(System.currentTimeMillis(), scheduledAt.toEpochMilli()));
+
+        if (!running.compareAndSet(false, true)) {
+            overrunCount.increment();
+            log.warn("[Scheduler] {} previous cycle still running, skipping {} (overruns={})",
+                    name, scheduledAt, overrunCount.sum());
+            return;
+        }
+        executor.execute(() -> run(scheduledAt));
+    }
+
+    private void run(Instant scheduledAt) {
+        long start = System.currentTimeMillis();
+        long lag = start - scheduledAt.toEpochMilli();
+        lastLagMillis.set(lag);
+        maxLagMillis.accumulateAndGet(lag, Math::max);
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("[Scheduler] {} cycle failed", name, e);
+        } finally {
+            long duration = System.currentTimeMillis() - start;
+            lastDurationMillis.set(duration);
+            maxDurationMillis.accumulateAndGet(duration, Math::max);
+            runCount.increment();
+            running.set(false);
+            log.info("[Scheduler] {} cycle lag={}ms duration={}ms overruns={}", name, lag, duration, overrunCount.sum());
+        }
+    }
+
+    public Metrics getMetrics() {
+        return new Metrics(name, runCount.sum(), overrunCount.sum(),
+                lastLagMillis.get(), maxLagMillis.get(), lastDurationMillis.get(), maxDurationMillis.get());
+    }
+
+    public record Metrics(String name, long runs, long overruns, long lastLagMillis, long maxLagMillis,
+                          long lastDurationMillis, long maxDurationMillis) {}
+}
@@ -1,48 +1,87 @@
 package com.example.stocktrading.trading.adapter.in.scheduler;
 
 import com.example.stocktrading.trading.application.port.in.TradingUseCase;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.List;
+
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class TradingScheduler implements ApplicationRunner {
 
     private final TradingUseCase tradingUseCase;
 
+    /**
+     * 리스크 관리 (미체결 처리, 타임아웃, 손절, 트레일링스톱)
+     */
+    private final BarAlignedCycle riskCycle;
+
+    /**
+     * AI 매매 (캔들 조회, AI 예측, 주문 실행). 캔들 refresh 이후 시각에 실행
+     */
+    private final BarAlignedCycle aiCycle;
+
+    public TradingScheduler(TradingUseCase tradingUseCase,
+                            TaskScheduler taskScheduler,
+                            @Value("${trading.risk.offset-seconds:2}") long riskOffsetSeconds,
+                            @Value("${trading.ai.offset-seconds:10}") long aiOffsetSeconds) {
+        this.tradingUseCase = tradingUseCase;
+        this.riskCycle = new BarAlignedCycle("Risk", Duration.ofSeconds(riskOffsetSeconds),
+                tradingUseCase::executeRiskManagement, taskScheduler);
+        this.aiCycle = new BarAlignedCycle("AI", Duration.ofSeconds(aiOffsetSeconds),
+                tradingUseCase::executeAiTrading, taskScheduler);
+    }
+
     @Override
     public void run(ApplicationArguments args) {
         log.info("[Scheduler] Initializing trading service...");
         tradingUseCase.initialize();
         log.info("[Scheduler] Initializing trading service done");
+
+        riskCycle.start();
+        aiCycle.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        riskCycle.stop();
+        aiCycle.stop();
     }
 
     /**
-     * 리스크 관리 (미체결 처리, 타임아웃, 손절, 트레일링스톱)
+     * 봉 마감 직후 캔들 캐시 refresh-ahead (기본: 매분 5초)
      */
-    @Scheduled(fixedDelay = 60000)
-    public void executeRiskManagement() {
+    @Scheduled(cron = "${trading.candle-refresh-cron:5 * * * * *}")
+    public void refreshCandles() {
         try {
-            tradingUseCase.executeRiskManagement();
+            tradingUseCase.refreshCandles();
         } catch (Exception e) {
-            log.error("[Scheduler] Risk management failed", e);
+            log.error("[Scheduler] Candle refresh failed", e);
         }
     }
 
     /**
-     * AI 매매 (캔들 조회, AI 예측, 주문 실행)
+     * PENDING 주문 체결 대사 (리스크 사이클 사이에도 체결을 수 초 내 반영)
      */
-    @Scheduled(fixedDelay = 60000)
-    public void executeAiTrading() {
+    @Scheduled(fixedDelayString = "${trading.reconcile.interval-ms:10000}",
+            initialDelayString = "${trading.reconcile.interval-ms:10000}")
+    public void reconcileOrders() {
         try {
-            tradingUseCase.executeAiTrading();
+            tradingUseCase.reconcileOrders();
         } catch (Exception e) {
-            log.error("[Scheduler] AI trading failed", e);
+            log.error("[Scheduler] Order reconciliation failed", e);
         }
     }
+
+    public List<BarAlignedCycle.Metrics> getCycleMetrics() {
+        return List.of(riskCycle.getMetrics(), aiCycle.getMetrics());
+    }
 }
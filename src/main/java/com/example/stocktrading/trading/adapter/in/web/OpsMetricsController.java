@@ -0,0 +1,43 @@
+package com.example.stocktrading.trading.adapter.in.web;
+
+import com.example.stocktrading.common.ApiResponse;
+import com.example.stocktrading.common.HttpClientMetrics;
+import com.example.stocktrading.common.security.RequireAuth;
+import com.example.stocktrading.trading.adapter.in.scheduler.TradingScheduler;
+import com.example.stocktrading.trading.adapter.out.ai.AiModelAdapter;
+import com.example.stocktrading.trading.adapter.out.broker.KisRateLimiter;
+import com.example.stocktrading.user.adapter.out.notification.NotificationDispatcher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 운영 지표 조회 (관리자): 리스크/AI 사이클 지연·overrun, KIS rate limit 대기/거절, KIS HTTP 동시 요청/endpoint 지연, AI 예측 timeout, 알림 큐/폐기
+ */
+@RestController
+@RequestMapping("/api/admin/metrics")
+@RequiredArgsConstructor
+@RequireAuth(adminOnly = true)
+public class OpsMetricsController {
+
+    private final TradingScheduler tradingScheduler;
+    private final KisRateLimiter kisRateLimiter;
+    private final AiModelAdapter aiModelAdapter;
+    private final HttpClientMetrics kisHttpMetrics;
+    private final NotificationDispatcher notificationDispatcher;
+
+    @GetMapping
+    public ApiResponse<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("cycles", tradingScheduler.getCycleMetrics());
+        metrics.put("kisRateLimit", kisRateLimiter.getMetrics());
+        metrics.put("kisHttp", kisHttpMetrics.getSnapshot());
+        metrics.put("aiPredictionTimeouts", aiModelAdapter.getTimeoutCount());
+        metrics.put("notifications", notificationDispatcher.getMetrics());
+        return ApiResponse.success(metrics);
+    }
+}
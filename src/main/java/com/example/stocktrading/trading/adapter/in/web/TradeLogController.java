@@ -4,12 +4,25 @@ import com.example.stocktrading.common.ApiResponse;
 import com.example.stocktrading.common.security.AuthContext;
 import com.example.stocktrading.common.security.RequireAuth;
 import com.example.stocktrading.trading.application.port.in.TradeLogUseCase;
+import com.example.stocktrading.trading.domain.StockOrder;
 import com.example.stocktrading.trading.domain.TradeLog;
+import com.example.stocktrading.trading.domain.TradeLogFilter;
+import com.example.stocktrading.trading.domain.TradeLogPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -19,7 +32,10 @@ import java.util.List;
 @RequireAuth
 public class TradeLogController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final TradeLogUseCase tradeLogUseCase;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/recent")
     public ApiResponse<List<TradeLog>> getRecentLogs() {
@@ -27,6 +43,53 @@ public class TradeLogController {
         return ApiResponse.success(tradeLogUseCase.getRecentTradeLogs(userId));
     }
 
+    /**
+     * 최신순 keyset 페이지 조회. 다음 페이지는 응답의 nextCursor 전달
+     */
+    @GetMapping
+    public ApiResponse<TradeLogPage> getLogs(@RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "50") int size,
+                                             @RequestParam(required = false) String ticker,
+                                             @RequestParam(required = false) StockOrder.OrderType action,
+                                             @RequestParam(required = false) TradeLog.OrderStatus status) {
+        Long userId = AuthContext.getUserId();
+        TradeLogFilter filter = new TradeLogFilter(ticker, action, status);
+        return ApiResponse.success(tradeLogUseCase.getTradeLogs(userId, filter, cursor, size));
+    }
+
+    /**
+     * 전체 이력 NDJSON export (오래된 순, 행 단위 스트리밍)
+     * 인증 실패 시 AuthAspect가 ApiResponse를 반환하므로 반환 타입은 Object
+     */
+    @GetMapping("/export")
+    public Object exportLogs(@RequestParam(required = false) String ticker,
+                             @RequestParam(required = false) StockOrder.OrderType action,
+                             @RequestParam(required = false) TradeLog.OrderStatus status) {
+        Long userId = AuthContext.getUserId(); // 스트리밍은 다른 스레드에서 실행되므로 미리 조회
+        TradeLogFilter filter = new TradeLogFilter(ticker, action, status);
+
+        StreamingResponseBody body = out -> {
+            BufferedOutputStream buffered = new BufferedOutputStream(out);
+            try {
+                tradeLogUseCase.exportTradeLogs(userId, filter, log -> {
+                    try {
+                        buffered.write(objectMapper.writeValueAsBytes(log));
+                        buffered.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            buffered.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"trade-logs.ndjson\"")
+                .body(body);
+    }
+
     @GetMapping("/stats")
     public ApiResponse<ProfitStatsResponse> getProfitStats() {
         Long userId = AuthContext.getUserId();
@@ -34,6 +97,15 @@ public class TradeLogController {
         return ApiResponse.success(new ProfitStatsResponse(realizedProfit));
     }
 
+    /**
+     * 실현손익 집계 재생성 (관리자)
+     */
+    @PostMapping("/stats/backfill")
+    @RequireAuth(adminOnly = true)
+    public ApiResponse<Integer> backfillProfitStats() {
+        return ApiResponse.success(tradeLogUseCase.backfillRealizedPnl());
+    }
+
     public record ProfitStatsResponse(BigDecimal realizedProfit) {
     }
 }
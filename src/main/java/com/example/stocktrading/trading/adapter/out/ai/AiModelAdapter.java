@@ -1,102 +1,306 @@
 package com.example.stocktrading.trading.adapter.out.ai;
 
 import com.example.stocktrading.trading.application.port.out.AiModelPort;
-import com.example.stocktrading.trading.domain.StockCandle;
+import com.example.stocktrading.trading.domain.CandleSeries;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 @Component
 public class AiModelAdapter implements AiModelPort {
 
-    private final RestClient restClient;
+    private static final String CANDLE_FORMAT_COLUMNAR = "columnar";
+    private static final ZoneId CANDLE_ZONE = ZoneId.of("Asia/Seoul");
 
-    public AiModelAdapter(@Qualifier("aiRestClient") RestClient restClient) {
+    private final RestClient restClient;
+    private final ObjectMapper objectMapper;
+    private final boolean columnarCandles;
+    private final int maxConcurrency;
+    private final LongAdder timeoutCount = new LongAdder();
+    private volatile boolean batchSupported = true;
+
+    public AiModelAdapter(@Qualifier("aiRestClient") RestClient restClient,
+                          ObjectMapper objectMapper,
+                          @Value("${ai.inference.candle-format:rows}") String candleFormat,
+                          @Value("${ai.inference.max-concurrency:4}") int maxConcurrency) {
         this.restClient = restClient;
+        this.objectMapper = objectMapper;
+        this.columnarCandles = CANDLE_FORMAT_COLUMNAR.equalsIgnoreCase(candleFormat);
+        this.maxConcurrency = maxConcurrency;
     }
 
     @Override
     public PredictionResult predict(String ticker, String strategy, Long userId,
-                                     List<StockCandle> minuteStockCandles, List<StockCandle> fiveMinStockCandles,
+                                     CandleSeries minuteCandles, CandleSeries fiveMinCandles,
                                      int buyThreshold, int sellThreshold) {
-        if (minuteStockCandles == null || minuteStockCandles.isEmpty()
-                || fiveMinStockCandles == null || fiveMinStockCandles.isEmpty()) {
+        return predict(new PredictionRequest(ticker, strategy, userId,
+                minuteCandles, fiveMinCandles, buyThreshold, sellThreshold));
+    }
+
+    private PredictionResult predict(PredictionRequest request) {
+        if (request.minuteCandles() == null || request.minuteCandles().isEmpty()
+                || request.fiveMinCandles() == null || request.fiveMinCandles().isEmpty()) {
             throw new RuntimeException("[Ai] minute and 5min candles required");
         }
 
         try {
-            List<Map<String, Object>> minuteData = mapCandles(minuteStockCandles);
-            List<Map<String, Object>> fiveMinData = mapCandles(fiveMinStockCandles);
+            PredictResponse response = restClient.post()
+                    .uri("/predict")
+                    .body(out -> writeJson(out, gen -> writePredictRequest(gen, request)))
+                    .retrieve()
+                    .body(PredictResponse.class);
 
-            if (minuteData.isEmpty() || fiveMinData.isEmpty()) {
-                log.warn("[AI] Insufficient data for {}: minute={}, 5min={}. Defaulting to HOLD.",
-                        ticker, minuteData.size(), fiveMinData.size());
-                return new PredictionResult(0, 0.0, List.of(1.0, 0.0, 0.0));
+            return toPredictionResult(request, response);
+        } catch (Exception e) {
+            log.error("[AI] Prediction failed for {}, defaulting to HOLD", request.ticker(), e);
+        }
+
+        return PredictionResult.hold();
+    }
+
+    /**
+     * /predict/batch 1회 호출. 서버 미지원(404/405)이면 이후로는 단건 병렬 호출로 대체
+     * deadline 까지 응답 없는 ticker는 HOLD
+     */
+    @Override
+    public List<PredictionResult> predictBatch(List<PredictionRequest> requests, Instant deadline) {
+        if (requests.isEmpty()) return List.of();
+
+        if (batchSupported) {
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            Future<BatchPredictResponse> future = executor.submit(() -> restClient.post()
+                    .uri("/predict/batch")
+                    .body(out -> writeJson(out, gen -> writeBatchRequest(gen, requests)))
+                    .retrieve()
+                    .body(BatchPredictResponse.class));
+            try {
+                BatchPredictResponse response = future.get(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+
+                if (response != null && response.results() != null && response.results().size() == requests.size()) {
+                    List<PredictionResult> results = new ArrayList<>(requests.size());
+                    for (int i = 0; i < requests.size(); i++) {
+                        results.add(toPredictionResult(requests.get(i), response.results().get(i)));
+                    }
+                    return results;
+                }
+                log.warn("[AI] Batch response size mismatch (requests={}), falling back to single calls", requests.size());
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                log.warn("[AI] Batch prediction timed out, all HOLD: {}",
+                        requests.stream().map(PredictionRequest::ticker).toList());
+                timeoutCount.add(requests.size());
+                return requests.stream().map(r -> PredictionResult.hold()).toList();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return requests.stream().map(r -> PredictionResult.hold()).toList();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof HttpClientErrorException.NotFound
+                        || e.getCause() instanceof HttpClientErrorException.MethodNotAllowed) {
+                    log.info("[AI] /predict/batch not supported by server, using single calls");
+                    batchSupported = false;
+                } else {
+                    log.error("[AI] Batch prediction failed, falling back to single calls", e.getCause());
+                }
+            } finally {
+                executor.shutdownNow();
             }
+        }
 
-            Map<String, Object> request = new HashMap<>();
-            request.put("ticker", ticker);
-            request.put("strategy", "scalping");
-            if (userId != null) {
-                request.put("user_id", userId);
+        return predictEach(requests, deadline);
+    }
+
+    /**
+     * 단건 병렬 호출 (동시 요청 max-concurrency 제한)
+     */
+    private List<PredictionResult> predictEach(List<PredictionRequest> requests, Instant deadline) {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        Semaphore permits = new Semaphore(maxConcurrency);
+        List<Future<PredictionResult>> futures = new ArrayList<>(requests.size());
+        for (PredictionRequest request : requests) {
+            futures.add(executor.submit(() -> {
+                permits.acquire();
+                try {
+                    return predict(request);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        List<PredictionResult> results = new ArrayList<>(requests.size());
+        List<String> timedOut = new ArrayList<>();
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                Future<PredictionResult> future = futures.get(i);
+                try {
+                    results.add(future.get(remainingNanos(deadline), TimeUnit.NANOSECONDS));
+                } catch (TimeoutException e) {
+                    future.cancel(true);
+                    timedOut.add(requests.get(i).ticker());
+                    results.add(PredictionResult.hold());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    results.add(PredictionResult.hold());
+                } catch (ExecutionException e) {
+                    log.error("[AI] Prediction failed for {}: {}", requests.get(i).ticker(), e.getCause().getMessage());
+                    results.add(PredictionResult.hold());
+                }
             }
-            request.put("minute_candles", minuteData);
-            request.put("fivemin_candles", fiveMinData);
-            request.put("min_buy_threshold", buyThreshold / 100.0);
-            request.put("min_sell_threshold", sellThreshold / 100.0);
+        } finally {
+            executor.shutdownNow();
+        }
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restClient.post()
-                    .uri("/predict")
-                    .body(request)
-                    .retrieve()
-                    .body(Map.class);
+        if (!timedOut.isEmpty()) {
+            timeoutCount.add(timedOut.size());
+            log.warn("[AI] Prediction timed out, HOLD: {} (total timeouts={})", timedOut, timeoutCount.sum());
+        }
+        return results;
+    }
 
-            if (response != null && response.containsKey("prediction")) {
-                int prediction = (Integer) response.get("prediction");
+    private long remainingNanos(Instant deadline) {
+        return Math.max(0, Duration.between(Instant.now(), deadline).toNanos());
+    }
 
-                @SuppressWarnings("unchecked")
-                List<Double> probs = (List<Double>) response.get("probabilities");
-                double confidence = response.containsKey("confidence")
-                        ? ((Number) response.get("confidence")).doubleValue() : 0.0;
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
 
-                String probStr = probs != null
-                        ? String.format("HOLD=%.1f%% BUY=%.1f%% SELL=%.1f%%",
-                        probs.get(0) * 100, probs.get(1) * 100, probs.get(2) * 100)
-                        : "N/A";
+    private PredictionResult toPredictionResult(PredictionRequest request, PredictResponse response) {
+        if (response == null || response.prediction() == null) {
+            return PredictionResult.hold();
+        }
 
-                log.info("[AI] {} -> {} | {} (conf={}, B>{}%, S>{}%, data: 1m={}, 5m={})",
-                        ticker, prediction == 0 ? "HOLD" : prediction == 1 ? "BUY" : "SELL",
-                        probStr, String.format("%.2f", confidence), buyThreshold, sellThreshold,
-                        minuteStockCandles.size(), fiveMinStockCandles.size());
+        int prediction = response.prediction();
+        List<Double> probs = response.probabilities();
+        double confidence = response.confidence() != null ? response.confidence() : 0.0;
 
-                return new PredictionResult(prediction, confidence, probs);
-            }
+        String probStr = probs != null
+                ? String.format("HOLD=%.1f%% BUY=%.1f%% SELL=%.1f%%",
+                probs.get(0) * 100, probs.get(1) * 100, probs.get(2) * 100)
+                : "N/A";
 
-        } catch (Exception e) {
-            log.error("[AI] Prediction failed for {}, defaulting to HOLD", ticker, e);
+        log.info("[AI] {} -> {} | {} (conf={}, B>{}%, S>{}%, data: 1m={}, 5m={})",
+                request.ticker(), prediction == 0 ? "HOLD" : prediction == 1 ? "BUY" : "SELL",
+                probStr, String.format("%.2f", confidence), request.buyThreshold(), request.sellThreshold(),
+                request.minuteCandles().size(), request.fiveMinCandles().size());
+
+        return new PredictionResult(prediction, confidence, probs);
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record PredictResponse(Integer prediction, Double confidence, List<Double> probabilities) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record BatchPredictResponse(List<PredictResponse> results) {}
+
+    @FunctionalInterface
+    private interface JsonWriter {
+        void write(JsonGenerator gen) throws IOException;
+    }
+
+    private void writeJson(OutputStream out, JsonWriter writer) throws IOException {
+        JsonGenerator gen = objectMapper.getFactory().createGenerator(out);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        writer.write(gen);
+        gen.close();
+    }
+
+    private void writeBatchRequest(JsonGenerator gen, List<PredictionRequest> requests) throws IOException {
+        gen.writeStartObject();
+        gen.writeArrayFieldStart("requests");
+        for (PredictionRequest request : requests) {
+            writePredictRequest(gen, request);
         }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    /**
+     * 캔들 컬럼에서 바로 JSON 스트리밍 (중간 Map/List 없음)
+     * rows: [{timestamp, open, ...}] (기존 포맷), columnar: {timestamp: [epoch sec], open: [...], ...}
+     */
+    private void writePredictRequest(JsonGenerator gen, PredictionRequest request) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("ticker", request.ticker());
+        gen.writeStringField("strategy", "scalping");
+        if (request.userId() != null) {
+            gen.writeNumberField("user_id", request.userId());
+        }
+        gen.writeNumberField("min_buy_threshold", request.buyThreshold() / 100.0);
+        gen.writeNumberField("min_sell_threshold", request.sellThreshold() / 100.0);
+        if (columnarCandles) {
+            gen.writeStringField("candle_format", CANDLE_FORMAT_COLUMNAR);
+            writeColumnarCandles(gen, "minute_candles", request.minuteCandles());
+            writeColumnarCandles(gen, "fivemin_candles", request.fiveMinCandles());
+        } else {
+            writeRowCandles(gen, "minute_candles", request.minuteCandles());
+            writeRowCandles(gen, "fivemin_candles", request.fiveMinCandles());
+        }
+        gen.writeEndObject();
+    }
 
-        return new PredictionResult(0, 0.0, List.of(1.0, 0.0, 0.0));
+    private void writeRowCandles(JsonGenerator gen, String field, CandleSeries candles) throws IOException {
+        gen.writeArrayFieldStart(field);
+        for (int i = 0; i < candles.size(); i++) {
+            gen.writeStartObject();
+            gen.writeStringField("timestamp", Instant.ofEpochMilli(candles.timestampAt(i)).atZone(CANDLE_ZONE).toString());
+            gen.writeNumberField("open", candles.openAt(i));
+            gen.writeNumberField("high", candles.highAt(i));
+            gen.writeNumberField("low", candles.lowAt(i));
+            gen.writeNumberField("close", candles.closeAt(i));
+            gen.writeNumberField("volume", candles.volumeAt(i));
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
     }
 
-    private List<Map<String, Object>> mapCandles(List<StockCandle> stockCandles) {
-        return stockCandles.stream().map(c -> {
-            Map<String, Object> map = new HashMap<>();
-            map.put("timestamp", c.getTimestamp().toString());
-            map.put("open", c.getOpen());
-            map.put("high", c.getHigh());
-            map.put("low", c.getLow());
-            map.put("close", c.getClose());
-            map.put("volume", c.getVolume());
-            return map;
-        }).toList();
+    private void writeColumnarCandles(JsonGenerator gen, String field, CandleSeries candles) throws IOException {
+        int n = candles.size();
+        gen.writeObjectFieldStart(field);
+        gen.writeArrayFieldStart("timestamp");
+        for (int i = 0; i < n; i++) gen.writeNumber(candles.timestampAt(i) / 1000);
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("open");
+        for (int i = 0; i < n; i++) gen.writeNumber(candles.openAt(i));
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("high");
+        for (int i = 0; i < n; i++) gen.writeNumber(candles.highAt(i));
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("low");
+        for (int i = 0; i < n; i++) gen.writeNumber(candles.lowAt(i));
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("close");
+        for (int i = 0; i < n; i++) gen.writeNumber(candles.closeAt(i));
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("volume");
+        for (int i = 0; i < n; i++) gen.writeNumber(candles.volumeAt(i));
+        gen.writeEndArray();
+        gen.writeEndObject();
     }
 
     @Override
@@ -134,7 +338,7 @@ public class AiModelAdapter implements AiModelPort {
             log.info("[AI] Training job queued: jobId={}, status={}", jobId, status);
 
             return jobId;
-        } catch (org.springframework.web.client.HttpClientErrorException e) {
+        } catch (HttpClientErrorException e) {
             if (e.getStatusCode().value() == 409) { // 이미 학습중
                 log.info("[AI] Training already in progress for {} (409 Conflict)", ticker);
                 return null;
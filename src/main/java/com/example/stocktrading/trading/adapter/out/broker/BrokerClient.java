@@ -3,10 +3,11 @@ package com.example.stocktrading.trading.adapter.out.broker;
 import com.example.stocktrading.trading.application.port.out.BrokerApiPort;
 import com.example.stocktrading.trading.domain.Asset;
 import com.example.stocktrading.trading.domain.BrokerContext;
-import com.example.stocktrading.trading.domain.StockCandle;
+import com.example.stocktrading.trading.domain.CandleSeries;
 import com.example.stocktrading.trading.domain.StockOrder;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface BrokerClient {
@@ -15,12 +16,20 @@ public interface BrokerClient {
 
     BigDecimal getCurrentPrice(BrokerContext ctx, String ticker);
 
-    List<StockCandle> getRecentCandles(BrokerContext ctx, String ticker, int limit);
+    CandleSeries getRecentCandles(BrokerContext ctx, String ticker, int limit);
 
-    List<StockCandle> getRecentCandles5Min(BrokerContext ctx, String ticker, int limit);
+    CandleSeries getRecentCandles5Min(BrokerContext ctx, String ticker, int limit);
 
     Asset getAccountAsset(BrokerContext ctx);
 
     /** 주문 취소 */
     BrokerApiPort.CancelResult cancelOrder(BrokerContext ctx, String orderId);
+
+    /** 주문 체결내역 (조회 실패 시 예외) */
+    List<BrokerApiPort.OrderExecution> getOrderExecutions(BrokerContext ctx, LocalDate from);
+
+    /** 체결내역 조회 지원 여부 (미지원 브로커는 취소 시도 결과로 체결 판정) */
+    default boolean supportsOrderExecutions() {
+        return true;
+    }
 }
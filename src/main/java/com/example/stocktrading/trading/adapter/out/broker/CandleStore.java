@@ -0,0 +1,125 @@
+package com.example.stocktrading.trading.adapter.out.broker;
+
+import com.example.stocktrading.trading.domain.CandleSeries;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+
+/**
+ * ticker/분봉 단위 롤링 캔들 저장소.
+ * 최초 1회만 전체 윈도우를 받고, 이후에는 마지막 저장 봉 이후 장중 시간만큼의 새 봉 + 진행중 봉 재조회(NREC 소량)만 요청해서 병합.
+ * 마지막 봉이 마감된 뒤 조회했고 그 이후 장이 열린 적이 없으면 조회 생략 (장 마감/주말에는 캐시 그대로 사용)
+ */
+@Slf4j
+@Component
+public class CandleStore {
+
+    private static final long MINUTE_MILLIS = 60_000L;
+    private static final ZoneId MARKET_ZONE = ZoneId.of("America/New_York");
+
+    private final LocalTime sessionOpen;
+    private final LocalTime sessionClose;
+    private final Map<String, Series> seriesMap = new ConcurrentHashMap<>();
+
+    public CandleStore(@Value("${trading.market.session-open:09:30}") String sessionOpen,
+                       @Value("${trading.market.session-close:16:00}") String sessionClose) {
+        this.sessionOpen = LocalTime.parse(sessionOpen);
+        this.sessionClose = LocalTime.parse(sessionClose);
+    }
+
+    /**
+     * @param fetcher 최신 n개 봉 조회
+     * @return 최근 limit개 봉 스냅샷
+     */
+    public CandleSeries getCandles(String key, int nmin, int limit, IntFunction<CandleSeries> fetcher) {
+        return getCandles(key, nmin, limit, fetcher, System.currentTimeMillis());
+    }
+
+    CandleSeries getCandles(String key, int nmin, int limit, IntFunction<CandleSeries> fetcher, long now) {
+        Series series = seriesMap.computeIfAbsent(key, k -> new Series());
+        series.lock.lock();
+        try {
+            CandleSeries candles = series.candles;
+            if (candles == null || candles.isEmpty() || candles.capacity() < limit) {
+                return series.reload(fetcher, limit, now);
+            }
+
+            long barMillis = nmin * MINUTE_MILLIS;
+            long lastTs = candles.lastTimestamp();
+            long lastBarEnd = lastTs + barMillis;
+            long newTradingMillis = tradingMillisBetween(lastBarEnd, now, (long) limit * barMillis);
+            if (newTradingMillis == 0 && series.fetchedAt >= lastBarEnd) {
+                // 마지막 봉은 마감 후 받은 확정 봉이고 이후 장중 시간 없음 → 새 봉이 있을 수 없음
+                return candles.copyOf(limit);
+            }
+
+            // 장중 시간 기준 새로 시작된 봉 수 + 마지막 저장 봉(진행중 봉 revision) 1개
+            int missing = (int) Math.ceilDiv(newTradingMillis, barMillis) + 1;
+            if (missing >= limit) {
+                return series.reload(fetcher, limit, now);
+            }
+
+            CandleSeries fresh = fetcher.apply(missing + 1);
+            if (fresh == null || fresh.isEmpty()) {
+                return candles.copyOf(limit);
+            }
+            if (fresh.timestampAt(0) > lastTs) {
+                // 겹치는 봉이 없으면 중간 누락 가능 → 전체 재조회
+                log.debug("[CandleStore] {} gap detected, reloading", key);
+                return series.reload(fetcher, limit, now);
+            }
+
+            candles.truncateFrom(fresh.timestampAt(0));
+            candles.appendAll(fresh);
+            series.fetchedAt = now;
+            log.debug("[CandleStore] {} merged {} bars (size={})", key, fresh.size(), candles.size());
+            return candles.copyOf(limit);
+        } finally {
+            series.lock.unlock();
+        }
+    }
+
+    /**
+     * [from, to) 구간 중 정규장(평일 session-open ~ session-close, 뉴욕 시간) 시간 합계. cap 도달 시 중단
+     */
+    long tradingMillisBetween(long from, long to, long cap) {
+        if (to <= from) return 0;
+        long total = 0;
+        LocalDate day = Instant.ofEpochMilli(from).atZone(MARKET_ZONE).toLocalDate();
+        LocalDate lastDay = Instant.ofEpochMilli(to).atZone(MARKET_ZONE).toLocalDate();
+        for (; !day.isAfter(lastDay) && total < cap; day = day.plusDays(1)) {
+            if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) continue;
+            long open = day.atTime(sessionOpen).atZone(MARKET_ZONE).toInstant().toEpochMilli();
+            long close = day.atTime(sessionClose).atZone(MARKET_ZONE).toInstant().toEpochMilli();
+            total += Math.max(0, Math.min(to, close) - Math.max(from, open));
+        }
+        return total;
+    }
+
+    private static class Series {
+        private final ReentrantLock lock = new ReentrantLock();
+        private CandleSeries candles;
+        private long fetchedAt; // 마지막 조회 시각 (마지막 봉이 확정 봉인지 판단)
+
+        CandleSeries reload(IntFunction<CandleSeries> fetcher, int limit, long now) {
+            CandleSeries full = fetcher.apply(limit);
+            if (full == null || full.isEmpty()) {
+                return CandleSeries.empty();
+            }
+            candles = new CandleSeries(limit);
+            candles.appendAll(full);
+            fetchedAt = now;
+            return candles.copyOf(limit);
+        }
+    }
+}
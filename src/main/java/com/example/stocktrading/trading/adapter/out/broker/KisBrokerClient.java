@@ -11,16 +11,25 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 
 @Slf4j
@@ -31,15 +40,41 @@ public class KisBrokerClient implements BrokerClient {
     private final TokenManager tokenManager;
     private final ObjectMapper objectMapper;
     private final ExchangeCodePort exchangeCodePort;
+    private final KisRateLimiter rateLimiter;
+    private final HashKeyMode hashKeyMode;
+    private final long hashKeyTimeoutMs;
+
+    // 주문 경로 공통 헤더 (appKey별, 토큰 바뀌면 재생성)
+    private final Map<String, OrderHeaders> orderHeaderTemplates = new ConcurrentHashMap<>();
+    // 최근 주문한 컨텍스트 (keep-warm 대상, 마지막 주문 후 KEEP_WARM_IDLE 지나면 제외)
+    private final Map<String, OrderContext> orderContexts = new ConcurrentHashMap<>();
+    private final ExecutorService hashKeyExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * 주문 hashkey 정책. REQUIRED: 순차 발급 후 주문, OVERLAP: 토큰/헤더 준비·주문 rate limit 대기와 병렬 발급, SKIP: 생략 (KIS 선택 항목)
+     */
+    public enum HashKeyMode { REQUIRED, OVERLAP, SKIP }
+
+    private record OrderHeaders(String token, HttpHeaders headers) {}
+
+    private record OrderContext(BrokerContext ctx, long lastUsedMillis) {}
+
+    private static final long KEEP_WARM_IDLE_MILLIS = 30 * 60 * 1000L;
 
     public KisBrokerClient(@Qualifier("kisRestClient") RestClient restClient,
             TokenManager tokenManager,
             ObjectMapper objectMapper,
-            ExchangeCodePort exchangeCodePort) {
+            ExchangeCodePort exchangeCodePort,
+            KisRateLimiter rateLimiter,
+            @Value("${kis.order.hashkey-mode:REQUIRED}") HashKeyMode hashKeyMode,
+            @Value("${kis.order.hashkey-timeout-ms:2000}") long hashKeyTimeoutMs) {
         this.restClient = restClient;
         this.tokenManager = tokenManager;
         this.objectMapper = objectMapper;
         this.exchangeCodePort = exchangeCodePort;
+        this.rateLimiter = rateLimiter;
+        this.hashKeyMode = hashKeyMode;
+        this.hashKeyTimeoutMs = hashKeyTimeoutMs;
     }
 
     private String getPriceExchangeCode(String ticker) {
@@ -59,7 +94,6 @@ public class KisBrokerClient implements BrokerClient {
         log.info("[KIS] Sending stockOrder: {}", stockOrder);
 
         try {
-            String token = tokenManager.getAccessToken(ctx.getAppKey(), ctx.getAppSecret());
             String trId;
             String sllType = null;
             if (stockOrder.getType() == OrderType.BUY) {
@@ -84,23 +118,10 @@ public class KisBrokerClient implements BrokerClient {
                 body.put("SLL_TYPE", sllType);
             }
 
-            String jsonBody = objectMapper.writeValueAsString(body);
-            String hashKey = getHashKey(ctx.getAppKey(), ctx.getAppSecret(), jsonBody);
-
             log.info("[KIS] StockOrder request - ticker={}, exchCd={}, trId={}", stockOrder.getTicker(), exchCd, trId);
 
-            String response = restClient.post()
-                    .uri("/uapi/overseas-stock/v1/trading/order")
-                    .headers(defaultHeaders(token, ctx))
-                    .header("tr_id", trId)
-                    .header("custtype", "P")
-                    .header("hashkey", hashKey != null ? hashKey : "")
-                    .body(jsonBody)
-                    .retrieve()
-                    .body(String.class);
-
-            if (response != null) {
-                JsonNode root = objectMapper.readTree(response);
+            JsonNode root = submitOrder(ctx, "/uapi/overseas-stock/v1/trading/order", trId, body);
+            if (root != null) {
                 String rtCd = root.path("rt_cd").asText();
                 String msgCd = root.path("msg_cd").asText();
                 String msg1 = root.path("msg1").asText();
@@ -129,6 +150,7 @@ public class KisBrokerClient implements BrokerClient {
             String token = tokenManager.getAccessToken(ctx.getAppKey(), ctx.getAppSecret());
             String exchCd = getPriceExchangeCode(ticker);
 
+            rateLimiter.acquire(ctx.getAppKey());
             String response = restClient.get()
                     .uri("/uapi/overseas-price/v1/quotations/price" +
                             "?AUTH=&EXCD={excd}&SYMB={symb}",
@@ -154,35 +176,34 @@ public class KisBrokerClient implements BrokerClient {
     }
 
     @Override
-    public List<StockCandle> getRecentCandles(BrokerContext ctx, String ticker, int limit) {
+    public CandleSeries getRecentCandles(BrokerContext ctx, String ticker, int limit) {
         return fetchStockCandles(ctx, ticker, limit, 1);
     }
 
     @Override
-    public List<StockCandle> getRecentCandles5Min(BrokerContext ctx, String ticker, int limit) {
+    public CandleSeries getRecentCandles5Min(BrokerContext ctx, String ticker, int limit) {
         return fetchStockCandles(ctx, ticker, limit, 5);
     }
 
     private static final int KIS_MAX_NREC = 120;
     private static final int KIS_MAX_PAGES = 5;
+    private static final DateTimeFormatter KIS_TS_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
 
-    private List<StockCandle> fetchStockCandles(BrokerContext ctx, String ticker, int limit, int nmin) {
+    private CandleSeries fetchStockCandles(BrokerContext ctx, String ticker, int limit, int nmin) {
         // 해외주식분봉조회 (페이징: NREC 최대 120, KEYB로 이어서 조회)
         // https://apiportal.koreainvestment.com/apiservice-apiservice?/uapi/overseas-price/v1/quotations/inquire-time-itemchartprice
         try {
             String token = tokenManager.getAccessToken(ctx.getAppKey(), ctx.getAppSecret());
             String exchCd = getPriceExchangeCode(ticker);
 
-            List<StockCandle> allCandles = new ArrayList<>();
+            // 응답은 최신봉부터 내림차순 → 모아뒀다가 역순으로 series에 append
+            List<JsonNode> rowsDesc = new ArrayList<>();
             String keyb = "";
             int nrec = Math.min(limit, KIS_MAX_NREC);
             int maxPages = Math.min((int) Math.ceil((double) limit / KIS_MAX_NREC), KIS_MAX_PAGES);
 
             for (int page = 0; page < maxPages; page++) {
-                if (page > 0) {
-                    Thread.sleep(100);
-                }
-
+                rateLimiter.acquire(ctx.getAppKey());
                 String response = restClient.get()
                         .uri("/uapi/overseas-price/v1/quotations/inquire-time-itemchartprice" +
                                 "?AUTH=&EXCD={excd}&SYMB={symb}&NMIN={nmin}&NREC={nrec}" +
@@ -200,42 +221,37 @@ public class KisBrokerClient implements BrokerClient {
                 JsonNode output2 = root.path("output2");
                 if (!output2.isArray() || output2.isEmpty()) break;
 
-                ZonedDateTime lastTs = null;
-                for (JsonNode node : output2) {
-                    String ymd = node.path("kymd").asText();
-                    String hms = node.path("khms").asText();
-                    if (ymd.isEmpty()) {
-                        ymd = ZonedDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-                    }
-
-                    LocalDateTime localTs = LocalDateTime.parse(ymd + hms,
-                            DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-                    ZonedDateTime ts = ZonedDateTime.of(localTs, ZoneId.of("Asia/Seoul"));
-                    lastTs = ts;
-
-                    allCandles.add(0, StockCandle.builder()
-                            .timestamp(ts)
-                            .open(new BigDecimal(node.path("open").asText("0")))
-                            .high(new BigDecimal(node.path("high").asText("0")))
-                            .low(new BigDecimal(node.path("low").asText("0")))
-                            .close(new BigDecimal(node.path("last").asText("0")))
-                            .volume(new BigDecimal(node.path("evol").asText("0")))
-                            .build());
-                }
+                output2.forEach(rowsDesc::add);
 
                 // 다음 KEYB = 마지막 캔들 시각에서 nmin분 전 (KIS API 스펙)
-                if (lastTs != null) {
-                    keyb = lastTs.minusMinutes(nmin)
-                            .format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-                }
-                if (output2.size() < nrec || allCandles.size() >= limit) break;
+                keyb = parseCandleTime(output2.get(output2.size() - 1)).minusMinutes(nmin).format(KIS_TS_FORMAT);
+                if (output2.size() < nrec || rowsDesc.size() >= limit) break;
             }
 
-            return allCandles;
+            CandleSeries series = new CandleSeries(rowsDesc.size());
+            for (int i = rowsDesc.size() - 1; i >= 0; i--) {
+                JsonNode node = rowsDesc.get(i);
+                series.append(parseCandleTime(node).toInstant().toEpochMilli(),
+                        node.path("open").asDouble(),
+                        node.path("high").asDouble(),
+                        node.path("low").asDouble(),
+                        node.path("last").asDouble(),
+                        node.path("evol").asDouble());
+            }
+            return series;
         } catch (Exception e) {
             log.error("[KIS] StockCandle fetch failed for " + ticker + " (" + nmin + "min)", e);
         }
-        return new ArrayList<>();
+        return CandleSeries.empty();
+    }
+
+    private ZonedDateTime parseCandleTime(JsonNode node) {
+        String ymd = node.path("kymd").asText();
+        String hms = node.path("khms").asText();
+        if (ymd.isEmpty()) {
+            ymd = ZonedDateTime.now(ZoneId.of("Asia/Seoul")).format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+        }
+        return ZonedDateTime.of(LocalDateTime.parse(ymd + hms, KIS_TS_FORMAT), ZoneId.of("Asia/Seoul"));
     }
 
     @Override
@@ -247,6 +263,7 @@ public class KisBrokerClient implements BrokerClient {
 
             // 해외주식 체결기준현재잔고
             // https://apiportal.koreainvestment.com/apiservice-apiservice?/uapi/overseas-stock/v1/trading/inquire-present-balance
+            rateLimiter.acquire(ctx.getAppKey());
             String resBalance = restClient.get()
                     .uri("/uapi/overseas-stock/v1/trading/inquire-present-balance" +
                             "?CANO={cano}&ACNT_PRDT_CD={acnt}" +
@@ -291,6 +308,7 @@ public class KisBrokerClient implements BrokerClient {
             // 해외주식 매수가능금액조회
             // https://apiportal.koreainvestment.com/apiservice-apiservice?/uapi/overseas-stock/v1/trading/inquire-psamount
             BigDecimal usdDeposit = BigDecimal.ZERO;
+            rateLimiter.acquire(ctx.getAppKey());
             String resPsamount = restClient.get()
                     .uri("/uapi/overseas-stock/v1/trading/inquire-psamount" +
                             "?CANO={cano}&ACNT_PRDT_CD={acnt}" +
@@ -343,6 +361,74 @@ public class KisBrokerClient implements BrokerClient {
         }
     }
 
+    private static final int KIS_CCNL_MAX_PAGES = 10;
+    private static final DateTimeFormatter KIS_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    @Override
+    public List<BrokerApiPort.OrderExecution> getOrderExecutions(BrokerContext ctx, LocalDate from) {
+        // 해외주식 주문체결내역 (전 종목/전 주문, 연속조회: tr_cont M/F → N + CTX_AREA 키)
+        // https://apiportal.koreainvestment.com/apiservice-apiservice?/uapi/overseas-stock/v1/trading/inquire-ccnl
+        try {
+            String token = tokenManager.getAccessToken(ctx.getAppKey(), ctx.getAppSecret());
+            String today = LocalDate.now(ZoneId.of("Asia/Seoul")).format(KIS_DATE_FORMAT);
+
+            List<BrokerApiPort.OrderExecution> executions = new ArrayList<>();
+            String trCont = "";
+            String ctxFk = "";
+            String ctxNk = "";
+
+            for (int page = 0; page < KIS_CCNL_MAX_PAGES; page++) {
+                rateLimiter.acquire(ctx.getAppKey());
+                ResponseEntity<String> response = restClient.get()
+                        .uri("/uapi/overseas-stock/v1/trading/inquire-ccnl" +
+                                "?CANO={cano}&ACNT_PRDT_CD={acnt}&PDNO={all}" + // 전 종목
+                                "&ORD_STRT_DT={from}&ORD_END_DT={to}" +
+                                "&SLL_BUY_DVSN=00" + // 전체
+                                "&CCLD_NCCS_DVSN=00" + // 체결/미체결 전체
+                                "&OVRS_EXCG_CD={excg}&SORT_SQN=DS&ORD_DT=&ORD_GNO_BRNO=&ODNO=" +
+                                "&CTX_AREA_FK200={fk}&CTX_AREA_NK200={nk}",
+                                ctx.getCano(), ctx.getAcntPrdtCd(), "%", from.format(KIS_DATE_FORMAT), today, "%", ctxFk, ctxNk)
+                        .headers(defaultHeaders(token, ctx))
+                        .header("tr_id", "TTTS3035R")
+                        .header("tr_cont", trCont)
+                        .header("custtype", "P")
+                        .retrieve()
+                        .toEntity(String.class);
+
+                if (response.getBody() == null) {
+                    throw new IllegalStateException("empty response");
+                }
+                JsonNode root = objectMapper.readTree(response.getBody());
+                if (!"0".equals(root.path("rt_cd").asText())) {
+                    throw new IllegalStateException("rt_cd=" + root.path("rt_cd").asText() + ", msg=" + root.path("msg1").asText());
+                }
+
+                for (JsonNode node : root.path("output")) {
+                    String filledPrice = node.path("ft_ccld_unpr3").asText("").strip();
+                    executions.add(new BrokerApiPort.OrderExecution(
+                            node.path("odno").asText(),
+                            node.path("pdno").asText(),
+                            (int) node.path("ft_ord_qty").asDouble(), // 주문수량
+                            (int) node.path("ft_ccld_qty").asDouble(), // 체결수량
+                            (int) node.path("nccs_qty").asDouble(), // 미체결수량
+                            filledPrice.isEmpty() ? BigDecimal.ZERO : new BigDecimal(filledPrice)));
+                }
+
+                String nextCont = response.getHeaders().getFirst("tr_cont");
+                if (!"M".equals(nextCont) && !"F".equals(nextCont)) break;
+                trCont = "N";
+                ctxFk = root.path("ctx_area_fk200").asText("").strip();
+                ctxNk = root.path("ctx_area_nk200").asText("").strip();
+            }
+
+            log.debug("[KIS] Order executions since {}: {}", from, executions.size());
+            return executions;
+        } catch (Exception e) {
+            log.error("[KIS] Order execution inquiry failed: {}", e.getMessage());
+            throw new RuntimeException("[KIS] order execution inquiry failed", e);
+        }
+    }
+
     private Consumer<HttpHeaders> defaultHeaders(String token, BrokerContext ctx) {
         return headers -> {
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -352,8 +438,116 @@ public class KisBrokerClient implements BrokerClient {
         };
     }
 
+    /**
+     * 주문/취소 공통 전송 경로. hashkey 정책 적용 + 미리 만든 헤더 사용, 단계별 소요시간 로그
+     */
+    private JsonNode submitOrder(BrokerContext ctx, String uri, String trId, Map<String, String> body) throws Exception {
+        long start = System.nanoTime();
+        orderContexts.put(ctx.getAppKey(), new OrderContext(ctx, System.currentTimeMillis()));
+        String jsonBody = objectMapper.writeValueAsString(body);
+
+        Future<String> hashKeyFuture = null;
+        if (hashKeyMode == HashKeyMode.OVERLAP) {
+            hashKeyFuture = hashKeyExecutor.submit(() -> getHashKey(ctx.getAppKey(), ctx.getAppSecret(), jsonBody));
+        }
+        String hashKey;
+        HttpHeaders headers;
+        try {
+            // OVERLAP: 발급 요청이 도는 동안 토큰/헤더 준비 + 주문 permit 대기 후 hashkey 수신
+            headers = orderHeaders(ctx);
+            String requiredHashKey = hashKeyMode == HashKeyMode.REQUIRED
+                    ? getHashKey(ctx.getAppKey(), ctx.getAppSecret(), jsonBody)
+                    : null;
+            rateLimiter.acquire(ctx.getAppKey());
+            hashKey = hashKeyMode == HashKeyMode.OVERLAP ? awaitHashKey(hashKeyFuture, trId) : requiredHashKey;
+        } catch (Exception e) {
+            if (hashKeyFuture != null) hashKeyFuture.cancel(true);
+            throw e;
+        }
+        long prepareDone = System.nanoTime();
+
+        String response = restClient.post()
+                .uri(uri)
+                .headers(h -> {
+                    h.addAll(headers);
+                    if (hashKey != null) h.set("hashkey", hashKey);
+                })
+                .header("tr_id", trId)
+                .body(jsonBody)
+                .retrieve()
+                .body(String.class);
+        long sendDone = System.nanoTime();
+
+        JsonNode root = response != null ? objectMapper.readTree(response) : null;
+        long parseDone = System.nanoTime();
+
+        log.info("[KIS] {} latency - prepare={}ms(hashkey {}), send={}ms, parse={}ms, total={}ms",
+                trId, (prepareDone - start) / 1_000_000, hashKeyMode,
+                (sendDone - prepareDone) / 1_000_000, (parseDone - sendDone) / 1_000_000,
+                (parseDone - start) / 1_000_000);
+        return root;
+    }
+
+    /**
+     * appKey별 주문 헤더 템플릿 (토큰이 바뀐 경우에만 재생성)
+     */
+    private HttpHeaders orderHeaders(BrokerContext ctx) {
+        String token = tokenManager.getAccessToken(ctx.getAppKey(), ctx.getAppSecret());
+        OrderHeaders cached = orderHeaderTemplates.get(ctx.getAppKey());
+        if (cached != null && cached.token().equals(token)) {
+            return cached.headers();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        defaultHeaders(token, ctx).accept(headers);
+        headers.set("custtype", "P");
+        HttpHeaders readOnly = HttpHeaders.readOnlyHttpHeaders(headers);
+        orderHeaderTemplates.put(ctx.getAppKey(), new OrderHeaders(token, readOnly));
+        return readOnly;
+    }
+
+    /**
+     * OVERLAP 모드 hashkey 대기 (timeout 초과 시 주문 실패 처리 — 멈춘 발급 요청이 주문을 무기한 막지 않도록)
+     */
+    private String awaitHashKey(Future<String> hashKeyFuture, String trId) throws Exception {
+        try {
+            return hashKeyFuture.get(hashKeyTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            hashKeyFuture.cancel(true);
+            throw new IllegalStateException("[KIS] " + trId + " hashkey timed out after " + hashKeyTimeoutMs + "ms");
+        }
+    }
+
+    /**
+     * 최근 주문 컨텍스트의 토큰/헤더를 미리 준비하고 HEAD 1회로 keep-alive 연결 유지 → 주문 시 핸드셰이크 없음.
+     * API 호출이 아니므로 appkey/rate limit permit 사용 안 함 (연결 pool은 host 단위라 컨텍스트 수와 무관하게 1회)
+     */
+    @Scheduled(fixedDelayString = "${kis.order.keep-warm-ms:25000}", initialDelayString = "${kis.order.keep-warm-ms:25000}")
+    public void keepOrderPathWarm() {
+        long idleBefore = System.currentTimeMillis() - KEEP_WARM_IDLE_MILLIS;
+        orderContexts.values().removeIf(c -> c.lastUsedMillis() < idleBefore);
+        if (orderContexts.isEmpty()) return;
+
+        for (OrderContext orderContext : orderContexts.values()) {
+            BrokerContext ctx = orderContext.ctx();
+            try {
+                orderHeaders(ctx);
+            } catch (Exception e) {
+                log.debug("[KIS] keep-warm headers failed for key {}: {}", ctx.getAppKey(), e.getMessage());
+            }
+        }
+        try {
+            restClient.head()
+                    .uri("/")
+                    .exchange((request, response) -> response.getStatusCode());
+        } catch (Exception e) {
+            log.debug("[KIS] keep-warm ping failed: {}", e.getMessage());
+        }
+    }
+
     private String getHashKey(String appKey, String appSecret, String jsonBody) {
         try {
+            rateLimiter.acquire(appKey);
             String response = restClient.post()
                     .uri("/uapi/hashkey")
                     .header("appkey", appKey)
@@ -377,8 +571,6 @@ public class KisBrokerClient implements BrokerClient {
         // 해외주식 주문정정취소
         // https://apiportal.koreainvestment.com/apiservice-apiservice?/uapi/overseas-stock/v1/trading/order-rvsecncl
         try {
-            String token = tokenManager.getAccessToken(ctx.getAppKey(), ctx.getAppSecret());
-
             Map<String, String> body = new HashMap<>();
             body.put("CANO", ctx.getCano());
             body.put("ACNT_PRDT_CD", ctx.getAcntPrdtCd());
@@ -390,23 +582,10 @@ public class KisBrokerClient implements BrokerClient {
             body.put("OVRS_ORD_UNPR", "0");     // 취소 시 0
             body.put("ORD_SVR_DVSN_CD", "0");
 
-            String jsonBody = objectMapper.writeValueAsString(body);
-            String hashKey = getHashKey(ctx.getAppKey(), ctx.getAppSecret(), jsonBody);
-
             log.info("[KIS] cancelOrder request - orderId={}", orderId);
 
-            String response = restClient.post()
-                    .uri("/uapi/overseas-stock/v1/trading/order-rvsecncl")
-                    .headers(defaultHeaders(token, ctx))
-                    .header("tr_id", "TTTT1004U")
-                    .header("custtype", "P")
-                    .header("hashkey", hashKey != null ? hashKey : "")
-                    .body(jsonBody)
-                    .retrieve()
-                    .body(String.class);
-
-            if (response != null) {
-                JsonNode root = objectMapper.readTree(response);
+            JsonNode root = submitOrder(ctx, "/uapi/overseas-stock/v1/trading/order-rvsecncl", "TTTT1004U", body);
+            if (root != null) {
                 String rtCd = root.path("rt_cd").asText();
                 String msg1 = root.path("msg1").asText();
 
@@ -0,0 +1,431 @@
+package com.example.stocktrading.trading.adapter.out.broker;
+
+import com.example.stocktrading.trading.application.port.out.ExchangeCodePort;
+import com.example.stocktrading.trading.application.port.out.MarketDataPort;
+import com.example.stocktrading.trading.domain.BrokerContext;
+import com.example.stocktrading.trading.domain.PriceTick;
+import com.example.stocktrading.user.domain.BrokerType;
+import com.example.stocktrading.user.domain.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * KIS 해외주식 실시간체결가(HDFSCNT0) WebSocket 피드.
+ * 앱키별 1개 세션, ticker별 최근 체결가/진행중 1분봉을 메모리에 유지. 끊기면 backoff 후 재접속 + 전체 재구독.
+ */
+@Slf4j
+@Component
+public class KisQuoteFeed implements MarketDataPort {
+
+    private static final String TR_ID = "HDFSCNT0";
+    private static final int MAX_SUBSCRIPTIONS = 41; // KIS 세션당 실시간 등록 한도
+    private static final int FIELDS_PER_RECORD = 26;
+    private static final long MAX_RECONNECT_DELAY_MS = 60_000;
+    private static final DateTimeFormatter KIS_TS_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    private final RoutingBrokerAdapter brokerAdapter;
+    private final RestClient restClient;
+    private final ObjectMapper objectMapper;
+    private final ExchangeCodePort exchangeCodePort;
+    private final boolean enabled;
+    private final URI wsUri;
+    private final long reconnectDelayMs;
+    private final long maxQuoteAgeMs;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+    private final Map<String, LiveQuote> quotes = new ConcurrentHashMap<>();
+    private final List<Consumer<PriceTick>> listeners = new CopyOnWriteArrayList<>();
+
+    public KisQuoteFeed(RoutingBrokerAdapter brokerAdapter,
+                        @Qualifier("kisRestClient") RestClient restClient,
+                        ObjectMapper objectMapper,
+                        ExchangeCodePort exchangeCodePort,
+                        @Value("${kis.ws.enabled:false}") boolean enabled,
+                        @Value("${kis.ws.url:ws://ops.koreainvestment.com:21000}") String wsUrl,
+                        @Value("${kis.ws.reconnect-delay-ms:3000}") long reconnectDelayMs,
+                        @Value("${kis.ws.max-quote-age-ms:5000}") long maxQuoteAgeMs) {
+        this.brokerAdapter = brokerAdapter;
+        this.restClient = restClient;
+        this.objectMapper = objectMapper;
+        this.exchangeCodePort = exchangeCodePort;
+        this.enabled = enabled;
+        this.wsUri = URI.create(wsUrl + "/tryitout/" + TR_ID);
+        this.reconnectDelayMs = reconnectDelayMs;
+        this.maxQuoteAgeMs = maxQuoteAgeMs;
+    }
+
+    @Override
+    public void subscribe(User user, Set<String> tickers) {
+        if (!enabled || user == null) return;
+
+        Optional<BrokerContext> ctx = brokerAdapter.resolveContext(user)
+                .filter(c -> c.getBrokerType() == BrokerType.KIS);
+        if (ctx.isEmpty()) return;
+
+        Connection connection = connections.computeIfAbsent(ctx.get().getAppKey(),
+                k -> new Connection(ctx.get().getAppKey(), ctx.get().getAppSecret()));
+        connection.update(user.getUserId(), tickers);
+    }
+
+    @Override
+    public Optional<Quote> getLastQuote(String ticker) {
+        LiveQuote live = quotes.get(ticker);
+        if (live == null) return Optional.empty();
+        Quote quote = live.snapshot();
+        if (quote.timestamp() < System.currentTimeMillis() - maxQuoteAgeMs) return Optional.empty();
+        return Optional.of(quote);
+    }
+
+    @Override
+    public void addListener(Consumer<PriceTick> listener) {
+        listeners.add(listener);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.values().forEach(Connection::close);
+    }
+
+    /**
+     * 실시간 frame 처리. 데이터: "0|HDFSCNT0|건수|필드^필드^...", 제어: JSON (PINGPONG, 구독 응답)
+     */
+    private void handleFrame(String frame, Consumer<String> reply) {
+        if (frame.isEmpty()) return;
+        char first = frame.charAt(0);
+        if (first == '0' || first == '1') {
+            handleData(frame);
+            return;
+        }
+
+        try {
+            JsonNode root = objectMapper.readTree(frame);
+            String trId = root.path("header").path("tr_id").asText();
+            if ("PINGPONG".equals(trId)) {
+                // 서버 heartbeat → 받은 그대로 회신해야 세션 유지
+                reply.accept(frame);
+                return;
+            }
+            JsonNode body = root.path("body");
+            if (!"0".equals(body.path("rt_cd").asText("0"))) {
+                log.warn("[KIS WS] {} {}: {}", trId, root.path("header").path("tr_key").asText(), body.path("msg1").asText());
+            } else {
+                log.debug("[KIS WS] {} {}: {}", trId, root.path("header").path("tr_key").asText(), body.path("msg1").asText());
+            }
+        } catch (IOException e) {
+            log.warn("[KIS WS] Unparseable frame: {}", frame);
+        }
+    }
+
+    private void handleData(String frame) {
+        String[] parts = frame.split("\\|", 4);
+        if (parts.length < 4 || !TR_ID.equals(parts[1])) return;
+        if ("1".equals(parts[0])) {
+            log.warn("[KIS WS] Encrypted frame not supported: {}", parts[1]);
+            return;
+        }
+
+        int count = Integer.parseInt(parts[2]);
+        String[] fields = parts[3].split("\\^");
+        for (int i = 0; i < count; i++) {
+            int base = i * FIELDS_PER_RECORD;
+            if (base + FIELDS_PER_RECORD > fields.length) break;
+
+            // SYMB(1) KYMD(6) KHMS(7) LAST(11) EVOL(19)
+            String ticker = fields[base + 1];
+            double price = Double.parseDouble(fields[base + 11]);
+            double volume = Double.parseDouble(fields[base + 19]);
+            long timestamp = parseTime(fields[base + 6] + fields[base + 7]);
+
+            PriceTick tick = new PriceTick(ticker, timestamp, price, volume);
+            quotes.computeIfAbsent(ticker, LiveQuote::new).update(tick);
+            for (Consumer<PriceTick> listener : listeners) {
+                try {
+                    listener.accept(tick);
+                } catch (Exception e) {
+                    log.error("[KIS WS] Listener failed for {}: {}", ticker, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private long parseTime(String kstDateTime) {
+        try {
+            return LocalDateTime.parse(kstDateTime, KIS_TS_FORMAT).atZone(KST).toInstant().toEpochMilli();
+        } catch (Exception e) {
+            return System.currentTimeMillis();
+        }
+    }
+
+    private String trKey(String ticker) {
+        String exchCd = exchangeCodePort.findByTicker(ticker.toUpperCase())
+                .map(ExchangeCodePort.ExchangeCode::kisPriceCode)
+                .orElse("NAS");
+        return "D" + exchCd + ticker;
+    }
+
+    private String fetchApprovalKey(String appKey, String appSecret) {
+        try {
+            String jsonBody = objectMapper.writeValueAsString(Map.of(
+                    "grant_type", "client_credentials",
+                    "appkey", appKey,
+                    "secretkey", appSecret));
+            String response = restClient.post()
+                    .uri("/oauth2/Approval")
+                    .body(jsonBody)
+                    .retrieve()
+                    .body(String.class);
+            return objectMapper.readTree(response).path("approval_key").asText(null);
+        } catch (Exception e) {
+            throw new RuntimeException("[KIS WS] approval key failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * ticker별 최근 체결가 + 진행중 1분봉
+     */
+    private static class LiveQuote {
+        private final String ticker;
+        private long timestamp;
+        private double price;
+        private long barStart = Long.MIN_VALUE;
+        private double open;
+        private double high;
+        private double low;
+        private double volume;
+
+        LiveQuote(String ticker) {
+            this.ticker = ticker;
+        }
+
+        synchronized void update(PriceTick tick) {
+            if (tick.timestamp() < timestamp) return;
+            long bar = tick.timestamp() - Math.floorMod(tick.timestamp(), 60_000L);
+            if (bar != barStart) {
+                barStart = bar;
+                open = high = low = tick.price();
+                volume = 0;
+            }
+            high = Math.max(high, tick.price());
+            low = Math.min(low, tick.price());
+            volume += tick.volume();
+            price = tick.price();
+            timestamp = tick.timestamp();
+        }
+
+        synchronized Quote snapshot() {
+            return new Quote(ticker, timestamp, price, barStart, open, high, low, volume);
+        }
+    }
+
+    /**
+     * 앱키 1개 WebSocket 세션. 사용자별 요청 ticker 합집합을 구독 상태로 유지
+     */
+    private class Connection implements WebSocket.Listener {
+        private final String appKey;
+        private final String appSecret;
+        private final Map<Long, Set<String>> tickersByUser = new ConcurrentHashMap<>();
+        private final Set<String> subscribed = new HashSet<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AtomicBoolean connecting = new AtomicBoolean();
+        private final StringBuilder partial = new StringBuilder();
+        private volatile WebSocket webSocket;
+        private volatile String approvalKey;
+        private volatile boolean closed;
+        private int failures;
+
+        Connection(String appKey, String appSecret) {
+            this.appKey = appKey;
+            this.appSecret = appSecret;
+        }
+
+        void update(Long userId, Set<String> tickers) {
+            tickersByUser.put(userId, Set.copyOf(tickers));
+            if (webSocket == null) {
+                connectAsync(0);
+            } else {
+                sync();
+            }
+        }
+
+        void close() {
+            closed = true;
+            WebSocket ws = webSocket;
+            if (ws != null) {
+                ws.sendClose(WebSocket.NORMAL_CLOSURE, "shutdown");
+            }
+        }
+
+        private void connectAsync(long delayMs) {
+            if (closed || !connecting.compareAndSet(false, true)) return;
+            Thread.ofVirtual().name("kis-ws-connect").start(() -> {
+                try {
+                    if (delayMs > 0) Thread.sleep(delayMs);
+                    if (approvalKey == null) {
+                        approvalKey = fetchApprovalKey(appKey, appSecret);
+                    }
+                    webSocket = httpClient.newWebSocketBuilder()
+                            .connectTimeout(Duration.ofSeconds(10))
+                            .buildAsync(wsUri, this)
+                            .join();
+                    lock.lock();
+                    try {
+                        subscribed.clear();
+                        failures = 0;
+                    } finally {
+                        lock.unlock();
+                    }
+                    log.info("[KIS WS] Connected for key: {}", appKey);
+                    connecting.set(false);
+                    sync();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    connecting.set(false);
+                } catch (Exception e) {
+                    log.warn("[KIS WS] Connect failed for key {}: {}", appKey, e.getMessage());
+                    connecting.set(false);
+                    scheduleReconnect();
+                }
+            });
+        }
+
+        private void scheduleReconnect() {
+            webSocket = null;
+            if (closed) return;
+            long delay;
+            lock.lock();
+            try {
+                failures++;
+                delay = Math.min(MAX_RECONNECT_DELAY_MS, reconnectDelayMs * (1L << Math.min(failures - 1, 5)));
+            } finally {
+                lock.unlock();
+            }
+            log.info("[KIS WS] Reconnecting in {}ms (attempt {})", delay, failures);
+            connectAsync(delay);
+        }
+
+        /**
+         * 원하는 구독 목록과 현재 구독 상태 차이만 등록/해제
+         */
+        private void sync() {
+            lock.lock();
+            try {
+                WebSocket ws = webSocket;
+                if (ws == null) return;
+
+                Set<String> desired = new TreeSet<>();
+                tickersByUser.values().forEach(desired::addAll);
+                if (desired.size() > MAX_SUBSCRIPTIONS) {
+                    log.warn("[KIS WS] {} tickers requested, only first {} subscribed", desired.size(), MAX_SUBSCRIPTIONS);
+                    desired = new TreeSet<>(desired.stream().limit(MAX_SUBSCRIPTIONS).toList());
+                }
+
+                for (Iterator<String> it = subscribed.iterator(); it.hasNext(); ) {
+                    String ticker = it.next();
+                    if (!desired.contains(ticker)) {
+                        send(ws, ticker, false);
+                        it.remove();
+                    }
+                }
+                for (String ticker : desired) {
+                    if (subscribed.add(ticker)) {
+                        send(ws, ticker, true);
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("[KIS WS] Subscription sync failed: {}", e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void send(WebSocket ws, String ticker, boolean register) {
+            Map<String, Object> message = Map.of(
+                    "header", Map.of(
+                            "approval_key", approvalKey,
+                            "custtype", "P",
+                            "tr_type", register ? "1" : "2",
+                            "content-type", "utf-8"),
+                    "body", Map.of("input", Map.of(
+                            "tr_id", TR_ID,
+                            "tr_key", trKey(ticker))));
+            try {
+                // sendText는 이전 전송 완료 전 재호출 불가 → join으로 직렬화 (호출부가 lock 보유)
+                ws.sendText(objectMapper.writeValueAsString(message), true).join();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private void sendRaw(String text) {
+            lock.lock();
+            try {
+                WebSocket ws = webSocket;
+                if (ws != null) {
+                    ws.sendText(text, true).join();
+                }
+            } catch (Exception e) {
+                log.warn("[KIS WS] Send failed: {}", e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            webSocket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                String frame = partial.toString();
+                partial.setLength(0);
+                try {
+                    handleFrame(frame, this::sendRaw);
+                } catch (Exception e) {
+                    log.warn("[KIS WS] Frame handling failed: {}", e.getMessage());
+                }
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            log.warn("[KIS WS] Closed for key {}: {} {}", appKey, statusCode, reason);
+            scheduleReconnect();
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            log.warn("[KIS WS] Error for key {}: {}", appKey, error.getMessage());
+            scheduleReconnect();
+        }
+    }
+}
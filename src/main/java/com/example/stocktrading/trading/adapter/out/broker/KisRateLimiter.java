@@ -0,0 +1,105 @@
+package com.example.stocktrading.trading.adapter.out.broker;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * KIS 앱키별 토큰 버킷 (초당 요청 수 + burst)
+ * 버킷 잠금은 슬롯 예약에만 사용하고, 대기는 잠금 밖에서 호출 스레드를 최대 max-wait까지 sleep.
+ * KIS 호출 경로(웹 요청, @Scheduled, 사이클, 조회 executor)는 모두 가상 스레드에서 실행되므로 대기 중 carrier를 점유하지 않음.
+ * 플랫폼 스레드에서 호출하면 그 스레드가 그대로 대기함 (경고 로그)
+ */
+@Slf4j
+@Component
+public class KisRateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final long maxWaitNanos;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final LongAdder acquiredCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxObservedWaitNanos = new AtomicLong();
+
+    public KisRateLimiter(@Value("${kis.api.rate-limit.permits-per-second:15}") double permitsPerSecond,
+                          @Value("${kis.api.rate-limit.burst:15}") int burst,
+                          @Value("${kis.api.rate-limit.max-wait-ms:5000}") long maxWaitMs) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("[KIS RateLimit] permits-per-second and burst must be positive");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstNanos = intervalNanos * burst;
+        this.maxWaitNanos = Duration.ofMillis(maxWaitMs).toNanos();
+    }
+
+    /**
+     * 앱키 버킷에서 1개 permit 획득. 대기 시간이 max-wait 초과면 예약 없이 거절
+     */
+    public void acquire(String appKey) {
+        long waitNanos = reserve(appKey, System.nanoTime());
+        if (waitNanos < 0) {
+            rejectedCount.increment();
+            log.warn("[KIS RateLimit] Rejected request for key: {}", appKey);
+            throw new RuntimeException("[KIS RateLimit] too many requests for key: " + appKey);
+        }
+
+        acquiredCount.increment();
+        if (waitNanos == 0) return;
+
+        totalWaitNanos.add(waitNanos);
+        maxObservedWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        if (!Thread.currentThread().isVirtual()) {
+            log.warn("[KIS RateLimit] Platform thread {} waiting {}ms for key: {}",
+                    Thread.currentThread().getName(), Duration.ofNanos(waitNanos).toMillis(), appKey);
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(waitNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("[KIS RateLimit] interrupted while waiting", e);
+        }
+    }
+
+    /**
+     * now 기준 permit 1개 예약 → 대기 시간(ns), max-wait 초과면 -1 (예약하지 않음)
+     */
+    long reserve(String appKey, long nowNanos) {
+        return buckets.computeIfAbsent(appKey, k -> new Bucket()).reserve(nowNanos);
+    }
+
+    public Metrics getMetrics() {
+        return new Metrics(
+                acquiredCount.sum(),
+                rejectedCount.sum(),
+                Duration.ofNanos(totalWaitNanos.sum()).toMillis(),
+                Duration.ofNanos(maxObservedWaitNanos.get()).toMillis());
+    }
+
+    public record Metrics(long acquired, long rejected, long totalWaitMillis, long maxWaitMillis) {}
+
+    /**
+     * GCRA 방식: 다음 허용 시각(tat)만 관리, burst 만큼 앞당겨 사용 가능
+     */
+    private class Bucket {
+        private long tat = Long.MIN_VALUE;
+
+        synchronized long reserve(long now) {
+            long base = tat == Long.MIN_VALUE ? now : Math.max(tat, now);
+            long nextTat = base + intervalNanos;
+            long waitNanos = nextTat - now - burstNanos;
+            if (waitNanos > maxWaitNanos) return -1;
+
+            tat = nextTat;
+            return Math.max(0, waitNanos);
+        }
+    }
+}
@@ -1,38 +1,152 @@
 package com.example.stocktrading.trading.adapter.out.broker;
 
-import com.example.stocktrading.common.CacheConfig;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * KIS 접근토큰 저장소.
+ * - expires_in 기준 만료 관리, 만료 refresh-ahead 전부터 백그라운드 재발급 (호출자는 기존 토큰 사용)
+ * - appKey별 발급 요청은 1개만 진행 (동시 호출은 같은 future 대기), 실패는 저장하지 않음
+ * - 발급 토큰은 AES-GCM 암호화 파일에 저장 → 재시작 시 재발급 없이 사용 (KIS 토큰 발급 횟수 제한)
+ */
 @Slf4j
 @Component
 public class KisTokenManager implements TokenManager {
 
+    private static final int GCM_IV_BYTES = 12;
+    private static final int GCM_TAG_BITS = 128;
+
     private final RestClient restClient;
     private final ObjectMapper objectMapper;
+    private final Duration refreshAhead;
+    private final Path storeFile;
+    private final SecretKeySpec storeKey;
+
+    private final Map<String, Token> tokens = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Token>> inflight = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SecureRandom random = new SecureRandom();
+
+    record Token(String appSecret, String accessToken, long expiresAtMillis) {
+        boolean isValid(long now) {
+            return expiresAtMillis > now;
+        }
+    }
 
     public KisTokenManager(@Qualifier("kisRestClient") RestClient restClient,
-                           ObjectMapper objectMapper) {
+                           ObjectMapper objectMapper,
+                           @Value("${kis.token.refresh-ahead-minutes:30}") long refreshAheadMinutes,
+                           @Value("${kis.token.store-file:./data/kis-tokens.dat}") String storeFile,
+                           @Value("${kis.token.store-secret:${jwt.secret}}") String storeSecret) throws Exception {
         this.restClient = restClient;
         this.objectMapper = objectMapper;
+        this.refreshAhead = Duration.ofMinutes(refreshAheadMinutes);
+        this.storeFile = Path.of(storeFile);
+        byte[] keyBytes = MessageDigest.getInstance("SHA-256").digest(storeSecret.getBytes(StandardCharsets.UTF_8));
+        this.storeKey = new SecretKeySpec(keyBytes, "AES");
+    }
+
+    @PostConstruct
+    void loadStore() {
+        if (!Files.exists(storeFile)) return;
+        try {
+            byte[] plain = decrypt(Base64.getDecoder().decode(Files.readString(storeFile).strip()));
+            Map<String, Token> stored = objectMapper.readValue(plain, new TypeReference<>() {});
+            long now = System.currentTimeMillis();
+            stored.forEach((appKey, token) -> {
+                if (token.isValid(now)) tokens.put(appKey, token);
+            });
+            log.info("[KIS Token] Loaded {} stored token(s)", tokens.size());
+        } catch (Exception e) {
+            log.warn("[KIS Token] Token store unreadable, ignoring: {}", e.getMessage());
+        }
     }
 
     @Override
-    @Cacheable(value = CacheConfig.KIS_TOKEN_CACHE, key = "'getAccessToken-'+ #appKey + '-' + #appSecret")
     public String getAccessToken(String appKey, String appSecret) {
         if (appKey == null || appSecret == null) {
             throw new RuntimeException("[KIS Token] invalid key/secret");
         }
 
+        long now = System.currentTimeMillis();
+        Token token = tokens.get(appKey);
+        if (token != null && token.appSecret().equals(appSecret) && token.isValid(now)) {
+            if (token.expiresAtMillis() - now < refreshAhead.toMillis()) {
+                refreshAsync(appKey, appSecret); // 만료 임박 → 기존 토큰 반환 + 백그라운드 재발급
+            }
+            return token.accessToken();
+        }
+
+        // 토큰 없음/만료 → 진행중 발급이 있으면 같이 대기
+        try {
+            return refreshAsync(appKey, appSecret).join().accessToken();
+        } catch (CompletionException e) {
+            throw new RuntimeException("[KIS Token] token unavailable for key: " + appKey, e.getCause());
+        }
+    }
+
+    /**
+     * 만료 임박 토큰 주기적 재발급 (trading loop에서 발급 대기가 생기지 않도록)
+     */
+    @Scheduled(fixedDelayString = "${kis.token.check-interval-ms:60000}")
+    public void refreshExpiring() {
+        long threshold = System.currentTimeMillis() + refreshAhead.toMillis();
+        tokens.forEach((appKey, token) -> {
+            if (token.expiresAtMillis() < threshold) {
+                refreshAsync(appKey, token.appSecret());
+            }
+        });
+    }
+
+    private CompletableFuture<Token> refreshAsync(String appKey, String appSecret) {
+        CompletableFuture<Token> existing = inflight.get(appKey);
+        if (existing != null) return existing;
+
+        CompletableFuture<Token> future = new CompletableFuture<>();
+        existing = inflight.putIfAbsent(appKey, future);
+        if (existing != null) return existing;
+
+        executor.execute(() -> {
+            try {
+                future.complete(fetchToken(appKey, appSecret));
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            } finally {
+                inflight.remove(appKey, future);
+            }
+        });
+        return future;
+    }
+
+    private Token fetchToken(String appKey, String appSecret) {
         log.info("[KIS Token] Fetching new token for key: {}", appKey);
-        String accessToken = null;
         try {
             Map<String, String> body = Map.of(
                     "grant_type", "client_credentials",
@@ -46,11 +160,51 @@ public class KisTokenManager implements TokenManager {
                     .retrieve()
                     .body(String.class);
             JsonNode jsonNode = objectMapper.readTree(response);
-            accessToken = jsonNode.get("access_token").asText();
-            log.info("[KIS Token] Token obtained for key: {}", appKey);
+            String accessToken = jsonNode.path("access_token").asText(null);
+            if (accessToken == null || accessToken.isEmpty()) {
+                throw new IllegalStateException("no access_token in response");
+            }
+            long expiresIn = jsonNode.path("expires_in").asLong(Duration.ofHours(24).toSeconds());
+
+            Token token = new Token(appSecret, accessToken, System.currentTimeMillis() + expiresIn * 1000);
+            tokens.put(appKey, token);
+            saveStore();
+            log.info("[KIS Token] Token obtained for key: {} (expires in {}s)", appKey, expiresIn);
+            return token;
         } catch (Exception e) {
             log.error("[KIS Token] Error obtaining token: {}", e.getMessage());
+            throw new RuntimeException("[KIS Token] token fetch failed: " + e.getMessage(), e);
+        }
+    }
+
+    private synchronized void saveStore() {
+        try {
+            byte[] plain = objectMapper.writeValueAsBytes(new HashMap<>(tokens));
+            Files.createDirectories(storeFile.toAbsolutePath().getParent());
+            Path tmp = storeFile.resolveSibling(storeFile.getFileName() + ".tmp");
+            Files.writeString(tmp, Base64.getEncoder().encodeToString(encrypt(plain)));
+            Files.move(tmp, storeFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            log.warn("[KIS Token] Token store write failed: {}", e.getMessage());
         }
-        return accessToken;
+    }
+
+    private byte[] encrypt(byte[] plain) throws Exception {
+        byte[] iv = new byte[GCM_IV_BYTES];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, storeKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+        byte[] encrypted = cipher.doFinal(plain);
+
+        byte[] out = new byte[iv.length + encrypted.length];
+        System.arraycopy(iv, 0, out, 0, iv.length);
+        System.arraycopy(encrypted, 0, out, iv.length, encrypted.length);
+        return out;
+    }
+
+    private byte[] decrypt(byte[] data) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, storeKey, new GCMParameterSpec(GCM_TAG_BITS, data, 0, GCM_IV_BYTES));
+        return cipher.doFinal(data, GCM_IV_BYTES, data.length - GCM_IV_BYTES);
     }
 }
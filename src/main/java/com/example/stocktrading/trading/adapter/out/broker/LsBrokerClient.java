@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -30,15 +31,15 @@ public class LsBrokerClient implements BrokerClient {
     }
 
     @Override
-    public List<StockCandle> getRecentCandles(BrokerContext ctx, String ticker, int limit) {
+    public CandleSeries getRecentCandles(BrokerContext ctx, String ticker, int limit) {
         log.info("[LS] Stub: getRecentCandles");
-        return Collections.emptyList();
+        return CandleSeries.empty();
     }
 
     @Override
-    public List<StockCandle> getRecentCandles5Min(BrokerContext ctx, String ticker, int limit) {
+    public CandleSeries getRecentCandles5Min(BrokerContext ctx, String ticker, int limit) {
         log.info("[LS] Stub: getRecentCandles5Min");
-        return Collections.emptyList();
+        return CandleSeries.empty();
     }
 
     @Override
@@ -58,4 +59,15 @@ public class LsBrokerClient implements BrokerClient {
         log.info("[LS] Stub: cancelOrder - TODO, orderId={}", orderId);
         return new BrokerApiPort.CancelResult(false, "Not implemented");
     }
+
+    @Override
+    public List<BrokerApiPort.OrderExecution> getOrderExecutions(BrokerContext ctx, LocalDate from) {
+        log.info("[LS] Stub: getOrderExecutions - from={}", from);
+        return List.of();
+    }
+
+    @Override
+    public boolean supportsOrderExecutions() {
+        return false;
+    }
 }
@@ -1,22 +1,25 @@
 package com.example.stocktrading.trading.adapter.out.broker;
 
-import com.example.stocktrading.common.CacheConfig;
+import com.example.stocktrading.common.SingleFlightCache;
 import com.example.stocktrading.user.domain.BrokerInfo;
+import com.example.stocktrading.user.domain.BrokerInfoChangedEvent;
 import com.example.stocktrading.user.domain.User;
 import com.example.stocktrading.trading.application.port.out.BrokerApiPort;
 import com.example.stocktrading.trading.domain.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
-import org.springframework.cache.annotation.Cacheable;
-
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Component
@@ -26,12 +29,41 @@ public class RoutingBrokerAdapter implements BrokerApiPort {
 
     private final KisBrokerClient kisClient;
     private final LsBrokerClient lsClient;
+    private final CandleStore candleStore;
+
+    // 동시 miss는 같은 로딩 결과 공유 (key·TTL 구간당 KIS 조회 1회), 빈 결과는 캐싱 안 함
+    private final SingleFlightCache<String, CandleSeries> candles1Min =
+            new SingleFlightCache<>(Duration.ofMinutes(1), series -> !series.isEmpty());
+    private final SingleFlightCache<String, CandleSeries> candles5Min =
+            new SingleFlightCache<>(Duration.ofMinutes(3), series -> !series.isEmpty());
+
+    // (userId, activeBrokerId) → BrokerContext. 브로커 정보 변경 이벤트 시 해당 사용자 항목 제거
+    private final Map<ContextKey, BrokerContext> contextCache = new ConcurrentHashMap<>();
+
+    private record ContextKey(Long userId, Long brokerId) {}
 
-    private Optional<BrokerContext> resolveContext(User user) {
+    public Optional<BrokerContext> resolveContext(User user) {
         if (user == null || user.getActiveBrokerId() == null) {
             throw new RuntimeException(
                     "[Router] Invalid User: " + Optional.ofNullable(user).map(User::getUsername).orElse("null"));
         }
+        ContextKey key = new ContextKey(user.getUserId(), user.getActiveBrokerId());
+        BrokerContext cached = contextCache.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<BrokerContext> ctx = buildContext(user);
+        ctx.ifPresent(c -> contextCache.put(key, c));
+        return ctx;
+    }
+
+    @EventListener
+    public void onBrokerInfoChanged(BrokerInfoChangedEvent event) {
+        contextCache.keySet().removeIf(key -> key.userId().equals(event.userId()));
+    }
+
+    private Optional<BrokerContext> buildContext(User user) {
         return user.getBrokerInfos().stream()
                 .filter(bi -> bi.getId().equals(user.getActiveBrokerId()))
                 .filter(this::hasValidCredentials)
@@ -66,6 +98,10 @@ public class RoutingBrokerAdapter implements BrokerApiPort {
         };
     }
 
+    private String candleKey(BrokerContext ctx, String ticker, int nmin) {
+        return ctx.getBrokerType() + "-" + ticker + "-" + nmin;
+    }
+
     @Override
     public OrderResult sendOrder(User user, StockOrder stockOrder) {
         return resolveContext(user)
@@ -81,19 +117,43 @@ public class RoutingBrokerAdapter implements BrokerApiPort {
     }
 
     @Override
-    @Cacheable(value = CacheConfig.CANDLE_1MIN, key = "'getRecentCandles-' + #ticker + '-' + #limit")
-    public List<StockCandle> getRecentCandles(User user, String ticker, int limit) {
+    public CandleSeries getRecentCandles(User user, String ticker, int limit) {
         return resolveContext(user)
-                .map(ctx -> getClient(ctx).getRecentCandles(ctx, ticker, limit))
-                .orElse(Collections.emptyList());
+                .map(ctx -> {
+                    String key = candleKey(ctx, ticker, 1);
+                    return candles1Min.get(key + "-" + limit, () -> candleStore.getCandles(key, 1, limit,
+                            n -> getClient(ctx).getRecentCandles(ctx, ticker, n)));
+                })
+                .orElse(CandleSeries.empty());
     }
 
     @Override
-    @Cacheable(value = CacheConfig.CANDLE_5MIN, key = "'getRecentCandles5Min-' + #ticker + '-' + #limit")
-    public List<StockCandle> getRecentCandles5Min(User user, String ticker, int limit) {
+    public CandleSeries getRecentCandles5Min(User user, String ticker, int limit) {
         return resolveContext(user)
-                .map(ctx -> getClient(ctx).getRecentCandles5Min(ctx, ticker, limit))
-                .orElse(Collections.emptyList());
+                .map(ctx -> {
+                    String key = candleKey(ctx, ticker, 5);
+                    return candles5Min.get(key + "-" + limit, () -> candleStore.getCandles(key, 5, limit,
+                            n -> getClient(ctx).getRecentCandles5Min(ctx, ticker, n)));
+                })
+                .orElse(CandleSeries.empty());
+    }
+
+    @Override
+    public void refreshRecentCandles(User user, String ticker, int limit) {
+        resolveContext(user).ifPresent(ctx -> {
+            String key = candleKey(ctx, ticker, 1);
+            candles1Min.refresh(key + "-" + limit, () -> candleStore.getCandles(key, 1, limit,
+                    n -> getClient(ctx).getRecentCandles(ctx, ticker, n)));
+        });
+    }
+
+    @Override
+    public void refreshRecentCandles5Min(User user, String ticker, int limit) {
+        resolveContext(user).ifPresent(ctx -> {
+            String key = candleKey(ctx, ticker, 5);
+            candles5Min.refresh(key + "-" + limit, () -> candleStore.getCandles(key, 5, limit,
+                    n -> getClient(ctx).getRecentCandles5Min(ctx, ticker, n)));
+        });
     }
 
     @Override
@@ -113,4 +173,18 @@ public class RoutingBrokerAdapter implements BrokerApiPort {
                 .map(ctx -> getClient(ctx).cancelOrder(ctx, orderId))
                 .orElse(new CancelResult(false, "No broker context"));
     }
+
+    @Override
+    public List<OrderExecution> getOrderExecutions(User user, LocalDate from) {
+        BrokerContext ctx = resolveContext(user)
+                .orElseThrow(() -> new RuntimeException("No broker context for user: " + user.getUserId()));
+        return getClient(ctx).getOrderExecutions(ctx, from);
+    }
+
+    @Override
+    public boolean supportsOrderExecutions(User user) {
+        return resolveContext(user)
+                .map(ctx -> getClient(ctx).supportsOrderExecutions())
+                .orElse(false);
+    }
 }
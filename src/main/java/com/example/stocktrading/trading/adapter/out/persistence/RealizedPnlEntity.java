@@ -0,0 +1,51 @@
+package com.example.stocktrading.trading.adapter.out.persistence;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "realized_pnl_daily",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "ticker", "trade_date"}))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RealizedPnlEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 20)
+    private String ticker;
+
+    @Column(name = "trade_date", nullable = false)
+    private LocalDate tradeDate;
+
+    @Column(name = "realized_profit", nullable = false, precision = 19, scale = 4)
+    @Builder.Default
+    private BigDecimal realizedProfit = BigDecimal.ZERO;
+
+    @Column(name = "sell_count", nullable = false)
+    private int sellCount;
+
+    @Column(name = "closed_buy_count", nullable = false)
+    private int closedBuyCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.stocktrading.trading.adapter.out.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface RealizedPnlRepository extends JpaRepository<RealizedPnlEntity, Long> {
+
+    Optional<RealizedPnlEntity> findByUserIdAndTickerAndTradeDate(Long userId, String ticker, LocalDate tradeDate);
+
+    // 사용자 누적 실현손익 (ticker × 일자 행 합산)
+    @Query("SELECT COALESCE(SUM(r.realizedProfit), 0) FROM RealizedPnlEntity r WHERE r.userId = :uid")
+    BigDecimal sumRealizedProfit(@Param("uid") Long uid);
+
+    @Modifying
+    @Query("DELETE FROM RealizedPnlEntity r WHERE r.userId = :uid")
+    int deleteByUserId(@Param("uid") Long uid);
+}
@@ -47,6 +47,9 @@ public class TradeLogEntity {
     @Builder.Default
     private TradeLog.OrderStatus status = TradeLog.OrderStatus.PENDING;
 
+    // CLOSED BUY를 청산한 SELL id (고아 청산은 null)
+    private Long closedById;
+
     @PrePersist
     protected void onCreate() {
         if (timestamp == null) {
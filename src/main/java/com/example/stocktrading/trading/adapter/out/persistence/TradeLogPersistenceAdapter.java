@@ -1,52 +1,97 @@
 package com.example.stocktrading.trading.adapter.out.persistence;
 
 import com.example.stocktrading.trading.application.port.out.TradeLogPort;
+import com.example.stocktrading.trading.domain.PositionState;
+import com.example.stocktrading.trading.domain.RealizedPnl;
 import com.example.stocktrading.trading.domain.StockOrder;
 import com.example.stocktrading.trading.domain.TradeLog;
+import com.example.stocktrading.trading.domain.TradeLogFilter;
+import com.example.stocktrading.trading.domain.TradeLogPage;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class TradeLogPersistenceAdapter implements TradeLogPort {
 
     private final TradeLogRepository tradeLogRepository;
+    private final RealizedPnlRepository realizedPnlRepository;
+    private final EntityManager entityManager;
+
+    // userId-ticker → 포지션 상태. 시작 시 trade_logs에서 복원, 이후 쓰기 commit 시 갱신 (DB는 영속 로그)
+    private final Map<String, PositionState> positions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void loadPositions() {
+        // 이력 전체가 아닌 미체결 주문 + 보유 lot만 적재 (FILLED SELL은 영구 보관되므로 제외)
+        List<TradeLogEntity> pending = tradeLogRepository.findByStatus(TradeLog.OrderStatus.PENDING);
+        List<TradeLogEntity> lots = tradeLogRepository.findByStatusAndAction(TradeLog.OrderStatus.FILLED, StockOrder.OrderType.BUY);
+        pending.forEach(entity -> apply(mapToDomain(entity)));
+        lots.forEach(entity -> apply(mapToDomain(entity)));
+        log.info("[TradeLog] Position state restored from {} pending orders and {} open lots ({} positions)",
+                pending.size(), lots.size(), positions.size());
+    }
 
     @Override
     @Transactional
     public TradeLog save(TradeLog tradeLog) {
         TradeLogEntity entity = mapToEntity(tradeLog);
-        TradeLogEntity saved = tradeLogRepository.save(entity);
-        return mapToDomain(saved);
+        TradeLog saved = mapToDomain(tradeLogRepository.save(entity));
+        afterCommit(() -> apply(saved));
+        return saved;
     }
 
     @Override
-    public List<TradeLog> findByUserIdOrderByTimestampAsc(Long userId) {
-        return tradeLogRepository.findByUserIdOrderByTimestampAsc(userId).stream()
+    public List<TradeLog> findRecentByUserId(Long userId, int limit) {
+        return tradeLogRepository.findByUserIdOrderByTimestampDesc(userId, PageRequest.of(0, limit)).stream()
                 .map(this::mapToDomain)
                 .toList();
     }
 
     @Override
-    public List<TradeLog> findRecentByUserId(Long userId, int limit) {
-        return tradeLogRepository.findByUserIdOrderByTimestampDesc(userId, PageRequest.of(0, limit)).stream()
+    public List<TradeLog> findPage(Long userId, TradeLogFilter filter, TradeLogPage.Cursor after, int limit) {
+        return tradeLogRepository.findPage(userId, filter, after, limit).stream()
                 .map(this::mapToDomain)
                 .toList();
     }
 
+    @Override
+    public void forEachByUserId(Long userId, TradeLogFilter filter, Consumer<TradeLog> action) {
+        try (Stream<TradeLogEntity> entities = tradeLogRepository.streamByUserId(userId, filter)) {
+            entities.forEach(entity -> {
+                action.accept(mapToDomain(entity));
+                entityManager.detach(entity); // 영속성 컨텍스트에 쌓이지 않도록
+            });
+        }
+    }
+
     @Override
     @Transactional
     public TradeLog updateStatus(Long tradeLogId, TradeLog.OrderStatus newStatus) {
         TradeLogEntity entity = tradeLogRepository.findById(tradeLogId).orElseThrow(
                 () -> new IllegalArgumentException("TradeLog not found: " + tradeLogId));
         entity.setStatus(newStatus);
-        return mapToDomain(tradeLogRepository.save(entity));
+        TradeLog updated = mapToDomain(tradeLogRepository.save(entity));
+        afterCommit(() -> apply(updated));
+        return updated;
     }
 
     @Override
@@ -59,29 +104,138 @@ public class TradeLogPersistenceAdapter implements TradeLogPort {
     @Override
     @Transactional
     public int closeFilledBuysBefore(Long userId, String ticker, Long beforeSellId) {
-        return tradeLogRepository.closeFilledBuysBefore(userId, ticker, beforeSellId);
+        List<TradeLogEntity> buys = tradeLogRepository.findFilledBuysBefore(userId, ticker, beforeSellId);
+        int closed = tradeLogRepository.closeFilledBuysBefore(userId, ticker, beforeSellId);
+        if (closed > 0) {
+            tradeLogRepository.findById(beforeSellId).ifPresent(sell -> addRealized(sell, buys));
+        }
+        afterCommit(() -> withPosition(userId, ticker, state -> state.closeLotsBefore(beforeSellId)));
+        return closed;
+    }
+
+    @Override
+    @Transactional
+    public int closeOldestFilledBuysBefore(Long userId, String ticker, Long beforeSellId, int count) {
+        List<TradeLogEntity> buys = tradeLogRepository.findFilledBuysBefore(userId, ticker, beforeSellId).stream()
+                .limit(Math.max(count, 0))
+                .toList();
+        if (buys.isEmpty()) return 0;
+        int closed = tradeLogRepository.closeFilledBuys(buys.stream().map(TradeLogEntity::getId).toList(), beforeSellId);
+        tradeLogRepository.findById(beforeSellId).ifPresent(sell -> addRealized(sell, buys));
+        afterCommit(() -> withPosition(userId, ticker, state -> state.closeOldestLotsBefore(beforeSellId, buys.size())));
+        return closed;
     }
 
     @Override
     @Transactional
     public int closeAllFilledBuys(Long userId, String ticker) {
-        return tradeLogRepository.closeAllFilledBuys(userId, ticker);
+        int closed = tradeLogRepository.closeAllFilledBuys(userId, ticker);
+        afterCommit(() -> withPosition(userId, ticker, PositionState::closeAllLots));
+        return closed;
     }
 
     @Override
     public boolean hasPendingSell(Long userId, String ticker) {
-        return tradeLogRepository.existsByUserIdAndTickerAndActionAndStatus(
-                userId, ticker, StockOrder.OrderType.SELL, TradeLog.OrderStatus.PENDING);
+        PositionState state = positions.get(positionKey(userId, ticker));
+        return state != null && state.hasPendingSell();
     }
 
     @Override
     public int getHoldingCount(Long userId, String ticker) {
-        return tradeLogRepository.countFilledBuys(userId, ticker);
+        PositionState state = positions.get(positionKey(userId, ticker));
+        return state != null ? state.getHoldingCount() : 0;
     }
 
     @Override
     public ZonedDateTime getPositionOpenedAt(Long userId, String ticker) {
-        return tradeLogRepository.findEarliestFilledBuyTimestamp(userId, ticker);
+        PositionState state = positions.get(positionKey(userId, ticker));
+        return state != null ? state.getOpenedAt() : null;
+    }
+
+    @Override
+    public BigDecimal getRealizedProfit(Long userId) {
+        return realizedPnlRepository.sumRealizedProfit(userId);
+    }
+
+    @Override
+    public boolean hasRealizedPnl() {
+        return realizedPnlRepository.count() > 0;
+    }
+
+    @Override
+    public List<Long> findTradedUserIds() {
+        return tradeLogRepository.findDistinctUserIds();
+    }
+
+    @Override
+    @Transactional
+    public void replaceRealizedPnl(Long userId, List<RealizedPnl> daily) {
+        realizedPnlRepository.deleteByUserId(userId);
+        realizedPnlRepository.flush();
+        realizedPnlRepository.saveAll(daily.stream()
+                .map(pnl -> RealizedPnlEntity.builder()
+                        .userId(pnl.getUserId())
+                        .ticker(pnl.getTicker())
+                        .tradeDate(pnl.getTradeDate())
+                        .realizedProfit(pnl.getProfit())
+                        .sellCount(pnl.getSellCount())
+                        .closedBuyCount(pnl.getClosedBuyCount())
+                        .build())
+                .toList());
+    }
+
+    /**
+     * SELL 1건 실현손익을 (user, ticker, 일자) 집계에 누적
+     */
+    private void addRealized(TradeLogEntity sell, List<TradeLogEntity> buys) {
+        BigDecimal buyTotal = buys.stream().map(TradeLogEntity::getPrice).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal profit = sell.getPrice().multiply(BigDecimal.valueOf(buys.size())).subtract(buyTotal);
+        LocalDate tradeDate = RealizedPnl.tradeDateOf(sell.getTimestamp());
+
+        RealizedPnlEntity daily = realizedPnlRepository
+                .findByUserIdAndTickerAndTradeDate(sell.getUserId(), sell.getTicker(), tradeDate)
+                .orElseGet(() -> RealizedPnlEntity.builder()
+                        .userId(sell.getUserId())
+                        .ticker(sell.getTicker())
+                        .tradeDate(tradeDate)
+                        .build());
+        daily.setRealizedProfit(daily.getRealizedProfit().add(profit));
+        daily.setSellCount(daily.getSellCount() + 1);
+        daily.setClosedBuyCount(daily.getClosedBuyCount() + buys.size());
+        realizedPnlRepository.save(daily);
+    }
+
+    private void apply(TradeLog tradeLog) {
+        if (tradeLog.getId() == null || tradeLog.getUserId() == null || tradeLog.getTicker() == null) return;
+        withPosition(tradeLog.getUserId(), tradeLog.getTicker(), state -> state.apply(tradeLog));
+    }
+
+    private void withPosition(Long userId, String ticker, Consumer<PositionState> update) {
+        positions.compute(positionKey(userId, ticker), (key, state) -> {
+            PositionState target = state != null ? state : new PositionState();
+            update.accept(target);
+            return target.isEmpty() ? null : target;
+        });
+    }
+
+    private String positionKey(Long userId, String ticker) {
+        return userId + "-" + ticker;
+    }
+
+    /**
+     * 트랜잭션 commit 후 반영 (rollback 시 메모리 상태 유지), 트랜잭션 밖이면 즉시 반영
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 
     public TradeLog mapToDomain(TradeLogEntity entity) {
@@ -96,6 +250,7 @@ public class TradeLogPersistenceAdapter implements TradeLogPort {
                 .timestamp(entity.getTimestamp())
                 .orderId(entity.getOrderId())
                 .status(entity.getStatus() != null ? entity.getStatus() : TradeLog.OrderStatus.PENDING)
+                .closedById(entity.getClosedById())
                 .build();
     }
 
@@ -111,6 +266,7 @@ public class TradeLogPersistenceAdapter implements TradeLogPort {
                 .timestamp(tradeLog.getTimestamp())
                 .orderId(tradeLog.getOrderId())
                 .status(tradeLog.getStatus() != null ? tradeLog.getStatus() : TradeLog.OrderStatus.PENDING)
+                .closedById(tradeLog.getClosedById())
                 .build();
     }
 }
@@ -10,36 +10,40 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface TradeLogRepository extends JpaRepository<TradeLogEntity, Long> {
-    List<TradeLogEntity> findByUserIdOrderByTimestampAsc(Long userId);
-
+public interface TradeLogRepository extends JpaRepository<TradeLogEntity, Long>, TradeLogRepositoryCustom {
     List<TradeLogEntity> findByUserIdOrderByTimestampDesc(Long userId, Pageable pageable);
 
+    // 포지션 상태 복원용: PENDING 주문 + 보유 lot(FILLED BUY). FILLED SELL은 상태에 쓰이지 않으므로 조회하지 않음
+    List<TradeLogEntity> findByStatus(TradeLog.OrderStatus status);
+
+    List<TradeLogEntity> findByStatusAndAction(TradeLog.OrderStatus status, StockOrder.OrderType action);
+
     // PENDING 주문 조회 (cancel check용, pending_orders 대체)
     List<TradeLogEntity> findByStatusAndTimestampBefore(TradeLog.OrderStatus status, ZonedDateTime threshold);
 
-    // SELL 체결 시 해당 SELL 이전의 FILLED BUY를 일괄 CLOSED 처리
+    // SELL 체결 시 청산 대상 BUY (실현손익 계산용)
+    @Query("SELECT t FROM TradeLogEntity t WHERE t.userId = :uid AND t.ticker = :ticker AND t.action = 'BUY' AND t.status = 'FILLED' AND t.id < :beforeId ORDER BY t.id ASC")
+    List<TradeLogEntity> findFilledBuysBefore(@Param("uid") Long uid, @Param("ticker") String ticker, @Param("beforeId") Long beforeId);
+
+    // SELL 체결 시 해당 SELL 이전의 FILLED BUY를 일괄 CLOSED 처리 (청산 SELL id 기록)
     @Modifying
-    @Query("UPDATE TradeLogEntity t SET t.status = 'CLOSED' WHERE t.userId = :uid AND t.ticker = :ticker AND t.action = 'BUY' AND t.status = 'FILLED' AND t.id < :beforeId")
+    @Query("UPDATE TradeLogEntity t SET t.status = 'CLOSED', t.closedById = :beforeId WHERE t.userId = :uid AND t.ticker = :ticker AND t.action = 'BUY' AND t.status = 'FILLED' AND t.id < :beforeId")
     int closeFilledBuysBefore(@Param("uid") Long uid, @Param("ticker") String ticker, @Param("beforeId") Long beforeId);
 
-    // PENDING SELL 존재 여부 (충돌 방지 가드)
-    boolean existsByUserIdAndTickerAndActionAndStatus(
-            Long userId, String ticker, StockOrder.OrderType action, TradeLog.OrderStatus status);
+    // SELL 부분체결 시 지정 BUY만 CLOSED 처리
+    @Modifying
+    @Query("UPDATE TradeLogEntity t SET t.status = 'CLOSED', t.closedById = :sellId WHERE t.id IN :ids AND t.status = 'FILLED'")
+    int closeFilledBuys(@Param("ids") Collection<Long> ids, @Param("sellId") Long sellId);
 
     // 고아 FILLED BUY 일괄 CLOSED 처리 (브로커에 보유량 없을 때)
     @Modifying
     @Query("UPDATE TradeLogEntity t SET t.status = 'CLOSED' WHERE t.userId = :uid AND t.ticker = :ticker AND t.action = 'BUY' AND t.status = 'FILLED'")
     int closeAllFilledBuys(@Param("uid") Long uid, @Param("ticker") String ticker);
 
-    // 보유 수량 (FILLED BUY 개수)
-    @Query("SELECT COUNT(t) FROM TradeLogEntity t WHERE t.userId = :uid AND t.ticker = :ticker AND t.action = 'BUY' AND t.status = 'FILLED'")
-    int countFilledBuys(@Param("uid") Long uid, @Param("ticker") String ticker);
-
-    // 포지션 시작시각 (FILLED BUY 중 가장 오래된 timestamp)
-    @Query("SELECT MIN(t.timestamp) FROM TradeLogEntity t WHERE t.userId = :uid AND t.ticker = :ticker AND t.action = 'BUY' AND t.status = 'FILLED'")
-    ZonedDateTime findEarliestFilledBuyTimestamp(@Param("uid") Long uid, @Param("ticker") String ticker);
+    @Query("SELECT DISTINCT t.userId FROM TradeLogEntity t")
+    List<Long> findDistinctUserIds();
 }
@@ -0,0 +1,24 @@
+package com.example.stocktrading.trading.adapter.out.persistence;
+
+import com.example.stocktrading.trading.domain.TradeLogFilter;
+import com.example.stocktrading.trading.domain.TradeLogPage;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 필터 조합별 trade log 조회 (지정된 조건만 WHERE에 포함 → 인덱스 선택이 필터 조합에 맞게 결정됨)
+ */
+public interface TradeLogRepositoryCustom {
+
+    /**
+     * 최신순 keyset 페이지: (timestamp, id) < after
+     * @param after null이면 첫 페이지
+     */
+    List<TradeLogEntity> findPage(Long userId, TradeLogFilter filter, TradeLogPage.Cursor after, int limit);
+
+    /**
+     * 전체 이력 오래된 순 스트림 (export/backfill). 트랜잭션 안에서 소비 후 close
+     */
+    Stream<TradeLogEntity> streamByUserId(Long userId, TradeLogFilter filter);
+}
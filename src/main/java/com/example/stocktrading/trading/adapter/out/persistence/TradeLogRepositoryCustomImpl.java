@@ -0,0 +1,66 @@
+package com.example.stocktrading.trading.adapter.out.persistence;
+
+import com.example.stocktrading.trading.domain.TradeLogFilter;
+import com.example.stocktrading.trading.domain.TradeLogPage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class TradeLogRepositoryCustomImpl implements TradeLogRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TradeLogEntity> findPage(Long userId, TradeLogFilter filter, TradeLogPage.Cursor after, int limit) {
+        return entityManager.createQuery(filteredQuery(userId, filter, after, false))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<TradeLogEntity> streamByUserId(Long userId, TradeLogFilter filter) {
+        return entityManager.createQuery(filteredQuery(userId, filter, null, true))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private CriteriaQuery<TradeLogEntity> filteredQuery(Long userId, TradeLogFilter filter,
+                                                        TradeLogPage.Cursor after, boolean ascending) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TradeLogEntity> query = cb.createQuery(TradeLogEntity.class);
+        Root<TradeLogEntity> t = query.from(TradeLogEntity.class);
+        Path<ZonedDateTime> timestamp = t.get("timestamp");
+        Path<Long> id = t.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(t.get("userId"), userId));
+        if (filter.ticker() != null) {
+            predicates.add(cb.equal(t.get("ticker"), filter.ticker()));
+        }
+        if (filter.action() != null) {
+            predicates.add(cb.equal(t.get("action"), filter.action()));
+        }
+        if (filter.status() != null) {
+            predicates.add(cb.equal(t.get("status"), filter.status()));
+        }
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(timestamp, after.timestamp()),
+                    cb.and(cb.equal(timestamp, after.timestamp()), cb.lessThan(id, after.id()))));
+        }
+
+        return query.select(t)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(ascending
+                        ? List.of(cb.asc(timestamp), cb.asc(id))
+                        : List.of(cb.desc(timestamp), cb.desc(id)));
+    }
+}
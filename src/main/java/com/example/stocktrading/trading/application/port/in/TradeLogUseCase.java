@@ -1,15 +1,34 @@
 package com.example.stocktrading.trading.application.port.in;
 
 import com.example.stocktrading.trading.domain.TradeLog;
+import com.example.stocktrading.trading.domain.TradeLogFilter;
+import com.example.stocktrading.trading.domain.TradeLogPage;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TradeLogUseCase {
 
     List<TradeLog> getRecentTradeLogs(Long userId);
 
+    /**
+     * @param cursor 이전 페이지의 nextCursor (null이면 첫 페이지)
+     */
+    TradeLogPage getTradeLogs(Long userId, TradeLogFilter filter, String cursor, int size);
+
+    /**
+     * 전체 이력을 오래된 순으로 sink에 전달 (export용)
+     */
+    void exportTradeLogs(Long userId, TradeLogFilter filter, Consumer<TradeLog> sink);
+
     BigDecimal calculateProfitStats(Long userId);
 
     int getHoldingCount(Long userId, String ticker);
+
+    /**
+     * trade_logs 기준 실현손익 집계 재생성
+     * @return 생성된 집계 행 수
+     */
+    int backfillRealizedPnl();
 }
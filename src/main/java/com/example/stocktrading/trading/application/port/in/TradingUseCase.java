@@ -6,5 +6,12 @@ public interface TradingUseCase {
 
     void executeRiskManagement();
 
+    /**
+     * PENDING 주문 체결 대사 (계좌별 체결내역 조회 → trade_logs 반영)
+     */
+    void reconcileOrders();
+
     void executeAiTrading();
+
+    void refreshCandles();
 }
@@ -1,14 +1,26 @@
 package com.example.stocktrading.trading.application.port.out;
 
+import java.time.Instant;
 import java.util.List;
-import com.example.stocktrading.trading.domain.StockCandle;
+import com.example.stocktrading.trading.domain.CandleSeries;
 
 public interface AiModelPort {
 
     PredictionResult predict(String ticker, String strategy, Long userId,
-                              List<StockCandle> minuteStockCandles, List<StockCandle> fiveMinStockCandles,
+                              CandleSeries minuteCandles, CandleSeries fiveMinCandles,
                               int buyThreshold, int sellThreshold);
 
+    /**
+     * 여러 ticker 예측을 한 번에 요청. 결과는 requests 순서와 동일, deadline 초과분은 HOLD
+     */
+    List<PredictionResult> predictBatch(List<PredictionRequest> requests, Instant deadline);
+
+    record PredictionRequest(
+            String ticker, String strategy, Long userId,
+            CandleSeries minuteCandles, CandleSeries fiveMinCandles,
+            int buyThreshold, int sellThreshold
+    ) {}
+
     String trainModel(String ticker, Long userId, TrainingParams params);
 
     record TrainingParams(
@@ -24,6 +36,10 @@ public interface AiModelPort {
             double confidence,
             List<Double> probabilities
     ) {
+        public static PredictionResult hold() {
+            return new PredictionResult(0, 0.0, List.of(1.0, 0.0, 0.0));
+        }
+
         public String predictionLabel() {
             return switch (prediction) {
                 case 1 -> "BUY";
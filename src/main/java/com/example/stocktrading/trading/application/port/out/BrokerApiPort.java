@@ -2,10 +2,11 @@ package com.example.stocktrading.trading.application.port.out;
 
 import com.example.stocktrading.user.domain.User;
 import com.example.stocktrading.trading.domain.Asset;
-import com.example.stocktrading.trading.domain.StockCandle;
+import com.example.stocktrading.trading.domain.CandleSeries;
 import com.example.stocktrading.trading.domain.StockOrder;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface BrokerApiPort {
@@ -13,14 +14,32 @@ public interface BrokerApiPort {
 
     BigDecimal getCurrentPrice(User user, String ticker);
 
-    List<StockCandle> getRecentCandles(User user, String ticker, int limit);
+    CandleSeries getRecentCandles(User user, String ticker, int limit);
 
-    List<StockCandle> getRecentCandles5Min(User user, String ticker, int limit);
+    CandleSeries getRecentCandles5Min(User user, String ticker, int limit);
+
+    /**
+     * 캐시된 캔들 강제 재조회 (봉 마감 직후 refresh-ahead 용)
+     */
+    void refreshRecentCandles(User user, String ticker, int limit);
+
+    void refreshRecentCandles5Min(User user, String ticker, int limit);
 
     Asset getAccountAsset(User user);
 
     CancelResult cancelOrder(User user, String orderId);
 
+    /**
+     * 계좌 주문 체결내역 1회 조회 (from 주문일자 이후 전체 주문)
+     * 조회 실패 시 예외 (빈 목록과 구분)
+     */
+    List<OrderExecution> getOrderExecutions(User user, LocalDate from);
+
+    /**
+     * 체결내역 조회 지원 여부 (false면 취소 시도 결과로 체결 판정)
+     */
+    boolean supportsOrderExecutions(User user);
+
     record OrderResult(boolean success, String message, String orderId) {
         public OrderResult(boolean success, String message) {
             this(success, message, null);
@@ -28,4 +47,23 @@ public interface BrokerApiPort {
     }
 
     record CancelResult(boolean success, String message) {}
+
+    /**
+     * @param openQuantity 미체결 수량 (0이고 체결 수량도 0이면 거부/취소된 주문)
+     */
+    record OrderExecution(String orderId, String ticker, int orderQuantity, int filledQuantity,
+                          int openQuantity, BigDecimal filledPrice) {
+
+        public boolean isFilled() {
+            return filledQuantity > 0 && openQuantity == 0;
+        }
+
+        public boolean isPartiallyFilled() {
+            return filledQuantity > 0 && openQuantity > 0;
+        }
+
+        public boolean isOpen() {
+            return openQuantity > 0;
+        }
+    }
 }
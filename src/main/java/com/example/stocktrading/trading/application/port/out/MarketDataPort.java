@@ -0,0 +1,31 @@
+package com.example.stocktrading.trading.application.port.out;
+
+import com.example.stocktrading.trading.domain.PriceTick;
+import com.example.stocktrading.user.domain.User;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public interface MarketDataPort {
+
+    /**
+     * 사용자 브로커 키로 구독할 ticker 전체 목록 (이전 목록과의 차이만 구독/해제)
+     */
+    void subscribe(User user, Set<String> tickers);
+
+    /**
+     * 최근 체결 시세. 피드 비활성이거나 max-age보다 오래됐으면 empty
+     */
+    Optional<Quote> getLastQuote(String ticker);
+
+    void addListener(Consumer<PriceTick> listener);
+
+    /**
+     * 최근 체결가 + 진행중 1분봉
+     */
+    record Quote(
+            String ticker, long timestamp, double price,
+            long barStart, double open, double high, double low, double volume
+    ) {}
+}
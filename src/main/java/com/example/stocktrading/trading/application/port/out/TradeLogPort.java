@@ -1,24 +1,46 @@
 package com.example.stocktrading.trading.application.port.out;
 
+import com.example.stocktrading.trading.domain.RealizedPnl;
 import com.example.stocktrading.trading.domain.TradeLog;
+import com.example.stocktrading.trading.domain.TradeLogFilter;
+import com.example.stocktrading.trading.domain.TradeLogPage;
 
+import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TradeLogPort {
 
     TradeLog save(TradeLog tradeLog);
 
-    List<TradeLog> findByUserIdOrderByTimestampAsc(Long userId);
-
     List<TradeLog> findRecentByUserId(Long userId, int limit);
 
+    /**
+     * 최신순 keyset 조회
+     * @param after null이면 첫 페이지
+     */
+    List<TradeLog> findPage(Long userId, TradeLogFilter filter, TradeLogPage.Cursor after, int limit);
+
+    /**
+     * 오래된 순으로 전체 이력 순차 전달 (목록으로 적재하지 않음)
+     */
+    void forEachByUserId(Long userId, TradeLogFilter filter, Consumer<TradeLog> action);
+
     TradeLog updateStatus(Long tradeLogId, TradeLog.OrderStatus newStatus);
 
     List<TradeLog> findPendingBefore(ZonedDateTime threshold);
 
+    /**
+     * SELL 이전 FILLED BUY를 CLOSED 처리하고 해당 SELL 실현손익을 일자 집계에 반영 (같은 트랜잭션)
+     */
     int closeFilledBuysBefore(Long userId, String ticker, Long beforeSellId);
 
+    /**
+     * SELL 부분체결: SELL 이전 FILLED BUY 중 오래된 순으로 최대 count건만 CLOSED (실현손익 반영은 동일)
+     */
+    int closeOldestFilledBuysBefore(Long userId, String ticker, Long beforeSellId, int count);
+
     int closeAllFilledBuys(Long userId, String ticker);
 
     boolean hasPendingSell(Long userId, String ticker);
@@ -26,4 +48,15 @@ public interface TradeLogPort {
     int getHoldingCount(Long userId, String ticker);
 
     ZonedDateTime getPositionOpenedAt(Long userId, String ticker);
+
+    BigDecimal getRealizedProfit(Long userId);
+
+    boolean hasRealizedPnl();
+
+    List<Long> findTradedUserIds();
+
+    /**
+     * 사용자 실현손익 집계 전체 교체 (backfill)
+     */
+    void replaceRealizedPnl(Long userId, List<RealizedPnl> daily);
 }
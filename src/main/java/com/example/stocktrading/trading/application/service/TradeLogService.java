@@ -2,44 +2,66 @@ package com.example.stocktrading.trading.application.service;
 
 import com.example.stocktrading.trading.application.port.in.TradeLogUseCase;
 import com.example.stocktrading.trading.application.port.out.TradeLogPort;
+import com.example.stocktrading.trading.domain.RealizedPnl;
 import com.example.stocktrading.trading.domain.StockOrder;
 import com.example.stocktrading.trading.domain.TradeLog;
+import com.example.stocktrading.trading.domain.TradeLogFilter;
+import com.example.stocktrading.trading.domain.TradeLogPage;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class TradeLogService implements TradeLogUseCase {
 
     private static final int RECENT_LOGS_LIMIT = 20;
+    private static final int MAX_PAGE_SIZE = 200;
 
     private final TradeLogPort tradeLogPort;
 
+    @Value("${trading.pnl.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
     @Override
     public List<TradeLog> getRecentTradeLogs(Long userId) {
         return tradeLogPort.findRecentByUserId(userId, RECENT_LOGS_LIMIT);
     }
 
     @Override
-    public BigDecimal calculateProfitStats(Long userId) {
-        List<TradeLog> logsAsc = tradeLogPort.findByUserIdOrderByTimestampAsc(userId);
-
-        Map<String, List<TradeLog>> logsByTicker = logsAsc.stream()
-                .filter(log -> log.getStatus() == TradeLog.OrderStatus.CLOSED
-                        || (log.getAction() == StockOrder.OrderType.SELL
-                            && log.getStatus() == TradeLog.OrderStatus.FILLED))
-                .collect(Collectors.groupingBy(TradeLog::getTicker));
+    public TradeLogPage getTradeLogs(Long userId, TradeLogFilter filter, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        TradeLogPage.Cursor after = cursor == null || cursor.isBlank() ? null : TradeLogPage.Cursor.decode(cursor);
 
-        BigDecimal totalProfit = BigDecimal.ZERO;
-        for (List<TradeLog> tickerLogsAsc : logsByTicker.values()) {
-            totalProfit = totalProfit.add(calculateTickerProfit(tickerLogsAsc));
+        // limit+1건 조회 → 초과분 있으면 다음 페이지 존재
+        List<TradeLog> rows = tradeLogPort.findPage(userId, filter, after, limit + 1);
+        if (rows.size() <= limit) {
+            return new TradeLogPage(rows, null);
         }
+        List<TradeLog> items = rows.subList(0, limit);
+        return new TradeLogPage(items, TradeLogPage.Cursor.of(items.get(limit - 1)).encode());
+    }
 
-        return totalProfit;
+    @Override
+    public void exportTradeLogs(Long userId, TradeLogFilter filter, Consumer<TradeLog> sink) {
+        tradeLogPort.forEachByUserId(userId, filter, sink);
+    }
+
+    /**
+     * 실현손익 집계 합산 (SELL 체결 시 갱신되는 realized_pnl_daily)
+     */
+    @Override
+    public BigDecimal calculateProfitStats(Long userId) {
+        return tradeLogPort.getRealizedProfit(userId);
     }
 
     @Override
@@ -47,23 +69,66 @@ public class TradeLogService implements TradeLogUseCase {
         return tradeLogPort.getHoldingCount(userId, ticker);
     }
 
-    private BigDecimal calculateTickerProfit(List<TradeLog> tickerLogsAsc) {
-        BigDecimal profit = BigDecimal.ZERO;
-        List<BigDecimal> buyPrices = new ArrayList<>();
+    /**
+     * 집계 테이블이 비어 있으면 기존 trade_logs로 1회 backfill
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!backfillOnStartup || tradeLogPort.hasRealizedPnl()) return;
+        try {
+            backfillRealizedPnl();
+        } catch (Exception e) {
+            log.error("[TradeLog] Realized P&L backfill failed", e);
+        }
+    }
 
-        // CLOSED BUYs + FILLED SELLs만 사용
-        for (TradeLog log : tickerLogsAsc) {
+    /**
+     * trade_logs 전체 replay → 사용자별 실현손익 집계 재생성
+     */
+    @Override
+    public int backfillRealizedPnl() {
+        int rows = 0;
+        for (Long userId : tradeLogPort.findTradedUserIds()) {
+            List<RealizedPnl> daily = replayRealizedPnl(userId);
+            tradeLogPort.replaceRealizedPnl(userId, daily);
+            rows += daily.size();
+        }
+        log.info("[TradeLog] Realized P&L backfill done: {} rows", rows);
+        return rows;
+    }
+
+    /**
+     * 이력 순차 replay. 증분 집계와 같은 대응: SELL마다 자신이 청산한 BUY(closedById)만 합산,
+     * 고아 청산(closedById 없음)/미청산 BUY는 제외. BUY는 항상 자신을 청산한 SELL보다 먼저 기록됨
+     */
+    private List<RealizedPnl> replayRealizedPnl(Long userId) {
+        Map<Long, List<BigDecimal>> buyPricesBySell = new HashMap<>();
+        Map<String, Map<LocalDate, RealizedPnl>> dailyByTicker = new HashMap<>();
+
+        // SELL이 청산한 CLOSED BUYs + FILLED SELLs만 사용
+        tradeLogPort.forEachByUserId(userId, TradeLogFilter.none(), log -> {
+            String ticker = log.getTicker();
             if (log.getAction() == StockOrder.OrderType.BUY && log.getStatus() == TradeLog.OrderStatus.CLOSED) {
-                buyPrices.add(log.getPrice());
+                if (log.getClosedById() == null) return;
+                buyPricesBySell.computeIfAbsent(log.getClosedById(), k -> new ArrayList<>()).add(log.getPrice());
             } else if (log.getAction() == StockOrder.OrderType.SELL && log.getStatus() == TradeLog.OrderStatus.FILLED) {
-                if (!buyPrices.isEmpty()) {
-                    BigDecimal totalBuyPrice = buyPrices.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-                    profit = profit.add(log.getPrice().multiply(BigDecimal.valueOf(buyPrices.size())).subtract(totalBuyPrice));
-                    buyPrices.clear();
-                }
+                List<BigDecimal> buyPrices = buyPricesBySell.remove(log.getId());
+                if (buyPrices == null || buyPrices.isEmpty()) return;
+
+                BigDecimal totalBuyPrice = buyPrices.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+                BigDecimal profit = log.getPrice().multiply(BigDecimal.valueOf(buyPrices.size())).subtract(totalBuyPrice);
+                LocalDate tradeDate = RealizedPnl.tradeDateOf(log.getTimestamp());
+                Map<LocalDate, RealizedPnl> byDate = dailyByTicker.computeIfAbsent(ticker, k -> new TreeMap<>());
+                RealizedPnl prev = byDate.get(tradeDate);
+                byDate.put(tradeDate, prev == null
+                        ? new RealizedPnl(userId, ticker, tradeDate, profit, 1, buyPrices.size())
+                        : new RealizedPnl(userId, ticker, tradeDate, prev.getProfit().add(profit),
+                                prev.getSellCount() + 1, prev.getClosedBuyCount() + buyPrices.size()));
             }
-        }
+        });
 
-        return profit;
+        List<RealizedPnl> daily = new ArrayList<>();
+        dailyByTicker.values().forEach(byDate -> daily.addAll(byDate.values()));
+        return daily;
     }
 }
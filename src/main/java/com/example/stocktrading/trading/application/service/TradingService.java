@@ -1,6 +1,6 @@
 package com.example.stocktrading.trading.application.service;
 
-import com.example.stocktrading.trading.application.port.in.AssetUseCase;
+import com.example.stocktrading.common.StripedLock;
 import com.example.stocktrading.trading.application.port.in.TradingUseCase;
 import com.example.stocktrading.trading.application.port.out.*;
 import com.example.stocktrading.trading.domain.*;
@@ -8,15 +8,21 @@ import com.example.stocktrading.user.application.port.out.NotificationPort;
 import com.example.stocktrading.user.application.port.out.UserPort;
 import com.example.stocktrading.user.domain.User;
 import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -29,49 +35,89 @@ public class TradingService implements TradingUseCase {
     private final TradeLogPort tradeLogPort;
     private final TradingTargetPort tradingTargetPort;
     private final BrokerApiPort brokerApiPort;
-    private final AssetUseCase assetUseCase;
     private final AiModelPort aiModelPort;
     private final NotificationPort notificationPort;
+    private final MarketDataPort marketDataPort;
 
     private static final int PENDING_TIMEOUT_MINUTES = 2;
     private static final int MAX_HOLDING_MINUTES = 25;
+    private static final int TRAILING_FALLBACK_CANDLES = 60;
+    private static final long TRAILING_STALE_MILLIS = Duration.ofMinutes(2).toMillis();
+    private static final Duration AI_CYCLE = Duration.ofSeconds(60);
+    private static final Duration ORDER_RESERVE = Duration.ofSeconds(15);
+    private static final int MINUTE_CANDLE_LIMIT = 200;
+    private static final int FIVE_MIN_CANDLE_LIMIT = 300;
+
+    private record CandleData(CandleSeries minute, CandleSeries fiveMin) {}
+
+    // (ticker, trailingWindow) 별 윈도우 고가. AI 사이클의 1분봉으로 갱신 → 트레일링스톱은 추가 조회 없이 사용
+    private final Map<String, SlidingWindowExtreme> trailingHighs = new ConcurrentHashMap<>();
+
+    // ticker → 틱마다 손절/트레일링 평가할 보유 포지션 (리스크 사이클마다 교체)
+    private final Map<String, List<LivePosition>> livePositions = new ConcurrentHashMap<>();
+    // 매도 주문 진행중인 userId-ticker (틱 평가와 스케줄 사이클 간 중복 매도 방지)
+    private final Set<String> sellsInFlight = ConcurrentHashMap.newKeySet();
+    // userId-ticker 포지션 단위 주문 직렬화 (리스크 사이클 / AI 사이클 / 틱 매도 간 경쟁 방지)
+    private final StripedLock positionLocks = new StripedLock(64);
+
+    private record LivePosition(User user, TradingTarget item, PositionBook book, BigDecimal averagePrice) {}
+
+    @PostConstruct
+    void registerPriceListener() {
+        marketDataPort.addListener(this::onPriceTick);
+    }
 
-    private record CandleData(List<StockCandle> minute, List<StockCandle> fiveMin) {}
+    // 주문 대사 중복 실행 방지 (리스크 사이클 / 주기 대사)
+    private final ReentrantLock reconcileLock = new ReentrantLock();
 
     @Override
     public void initialize() {
-        handlePendingOrder();
+        reconcileOrders();
     }
 
     @Override
     public void executeRiskManagement() {
         List<TradingTarget> activeItems = new ArrayList<>(tradingTargetPort.findActiveItems());
-        if (activeItems.isEmpty()) return;
+        if (activeItems.isEmpty()) {
+            livePositions.clear();
+            return;
+        }
 
         Map<Long, User> userMap = buildUserMap(activeItems);
         activeItems = filterByTradingHours(activeItems, userMap);
-        if (activeItems.isEmpty()) return;
+        if (activeItems.isEmpty()) {
+            livePositions.clear();
+            return;
+        }
 
         log.info("[Risk] ========== Risk Management Start (Active: {}) ==========", activeItems.size());
 
-        // 1. 오래된 PENDING 취소
-        handlePendingOrder();
+        // 1. PENDING 주문 체결 대사 (체결 반영, 타임아웃 미체결 취소)
+        reconcileOrders();
 
         // 2. 이미 매도 주문이 진행중인 ticker 제외 (중복 매도 방지)
         activeItems.removeIf(item -> tradeLogPort.hasPendingSell(item.getUserId(), item.getTicker()));
         if (activeItems.isEmpty()) {
+            livePositions.clear();
             log.info("[Risk] ========== Risk Management End (all have pending sells) ==========");
             return;
         }
 
-        // 3. 보유 타임아웃 강제매도
-        executeTimeout(activeItems, userMap);
+        // 3. 사용자별 보유 종목 1회 조회 (이후 단계는 조회 없이 공유)
+        Map<Long, PositionBook> books = loadPositionBooks(activeItems, userMap);
+        subscribeQuotes(activeItems, userMap, books);
+
+        // 4. 보유 타임아웃 강제매도
+        executeTimeout(activeItems, userMap, books);
 
-        // 4. 손절 체크 + 매도
-        executeStopLoss(activeItems, userMap);
+        // 5. 손절 체크 + 매도
+        executeStopLoss(activeItems, userMap, books);
 
-        // 5. 트레일링스톱 (1분봉)
-        executeTrailingStop(activeItems, userMap);
+        // 6. 트레일링스톱 (1분봉)
+        executeTrailingStop(activeItems, userMap, books);
+
+        // 7. 남은 보유 포지션은 다음 사이클까지 실시간 틱으로 평가
+        refreshLivePositions(activeItems, userMap, books);
 
         log.info("[Risk] ========== Risk Management End ==========");
     }
@@ -86,12 +132,15 @@ public class TradingService implements TradingUseCase {
         if (activeItems.isEmpty()) return;
 
         log.info("[AI] ========== AI Trading Start (Active: {}) ==========", activeItems.size());
+        // 예측 마감 = 사이클 시작 + 60초 - 주문 실행 여유
+        Instant predictionDeadline = Instant.now().plus(AI_CYCLE).minus(ORDER_RESERVE);
 
         // 1. 캔들 fetch (1min + 5min)
         Map<String, CandleData> candleCache = fetchAllCandles(activeItems, userMap);
+        updateTrailingHighs(activeItems, candleCache);
 
         // 2. AI 예측
-        Map<String, AiModelPort.PredictionResult> predictions = fetchPredictions(activeItems, candleCache);
+        Map<String, AiModelPort.PredictionResult> predictions = fetchPredictions(activeItems, candleCache, predictionDeadline);
 
         // 3. 장 마감 근처 BUY 시그널 → HOLD로 변환 (per-item)
         filterNearCloseBuySignals(activeItems, userMap, predictions);
@@ -102,13 +151,58 @@ public class TradingService implements TradingUseCase {
         log.info("[AI] ========== AI Trading End ==========");
     }
 
+    /**
+     * 봉 마감 직후 활성 ticker 캔들 캐시 재조회 (1분봉 매분, 5분봉은 5분 경계) → AI 사이클은 항상 warm 캐시 사용
+     */
+    @Override
+    public void refreshCandles() {
+        List<TradingTarget> activeItems = new ArrayList<>(tradingTargetPort.findActiveItems());
+        if (activeItems.isEmpty()) return;
+
+        Map<Long, User> userMap = buildUserMap(activeItems);
+        activeItems = filterByTradingHours(activeItems, userMap);
+        if (activeItems.isEmpty()) return;
+
+        boolean fiveMinBoundary = ZonedDateTime.now(ZoneId.of("Asia/Seoul")).getMinute() % 5 == 0;
+        Map<String, User> tickerToUser = tickerToUser(activeItems, userMap);
+        long start = System.currentTimeMillis();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            tickerToUser.forEach((ticker, user) -> {
+                executor.submit(() -> refreshTicker(() -> brokerApiPort.refreshRecentCandles(user, ticker, MINUTE_CANDLE_LIMIT), ticker));
+                if (fiveMinBoundary) {
+                    executor.submit(() -> refreshTicker(() -> brokerApiPort.refreshRecentCandles5Min(user, ticker, FIVE_MIN_CANDLE_LIMIT), ticker));
+                }
+            });
+        }
+        log.debug("[Refresh] {} tickers (5min={}) in {}ms", tickerToUser.size(), fiveMinBoundary,
+                System.currentTimeMillis() - start);
+    }
+
+    private void refreshTicker(Runnable refresh, String ticker) {
+        try {
+            refresh.run();
+        } catch (Exception e) {
+            log.warn("[Refresh] {} failed: {}", ticker, e.getMessage());
+        }
+    }
+
     public BrokerApiPort.OrderResult executeOrder(User user, TradingTarget item,
                                                     StockOrder.OrderType orderType, BigDecimal price) {
+        return executeOrder(user, item, orderType, price, null);
+    }
+
+    /**
+     * @param book 사이클에서 조회한 보유 종목 (null이면 매도 시 직접 조회)
+     */
+    private BrokerApiPort.OrderResult executeOrder(User user, TradingTarget item,
+                                                   StockOrder.OrderType orderType, BigDecimal price,
+                                                   PositionBook book) {
         int quantity;
         if (orderType == StockOrder.OrderType.BUY) {
             quantity = 1;
         } else {
-            quantity = getSellQuantity(user, item);
+            quantity = book != null ? book.getQuantity(item.getTicker()) : getSellQuantity(user, item);
             if (quantity <= 0) {
                 // 브로커에 보유량 없음 — DB 고아 FILLED BUY 정리
                 int closed = tradeLogPort.closeAllFilledBuys(item.getUserId(), item.getTicker());
@@ -145,35 +239,187 @@ public class TradingService implements TradingUseCase {
     }
 
     private Map<Long, User> buildUserMap(List<TradingTarget> items) {
-        return items.stream()
-                .map(item -> userPort.findById(item.getUserId()).orElse(null))
-                .filter(Objects::nonNull)
+        return toUserMap(items.stream().map(TradingTarget::getUserId).collect(Collectors.toSet()));
+    }
+
+    private Map<Long, User> toUserMap(Set<Long> userIds) {
+        return userPort.findAllByIds(userIds).stream()
                 .collect(Collectors.toMap(User::getUserId, Function.identity(), (a, b) -> a));
     }
 
     /**
-     * PENDING 주문 확인/취소 처리 (BUY/SELL 분리)
+     * PENDING 주문 체결 대사: 계좌별 체결내역 1회 조회 → orderId 매칭
+     * 체결/부분체결은 바로 반영, 타임아웃 지난 미체결 주문만 취소.
+     * 체결내역 조회가 안 되는 계좌는 기존 방식 (타임아웃 후 취소 시도 결과로 판정)
      */
-    public void handlePendingOrder() {
-        ZonedDateTime threshold = ZonedDateTime.now(ZoneId.of("Asia/Seoul")).minusMinutes(PENDING_TIMEOUT_MINUTES);
-        List<TradeLog> expiredPendings = tradeLogPort.findPendingBefore(threshold);
-        if (expiredPendings.isEmpty()) return;
-
-        for (TradeLog expiredPending : expiredPendings) {
-            if (expiredPending.getAction() == StockOrder.OrderType.BUY) {
-                handlePendingBuy(expiredPending);
-            } else if (expiredPending.getAction() == StockOrder.OrderType.SELL) {
-                handlePendingSell(expiredPending);
+    @Override
+    public void reconcileOrders() {
+        if (!reconcileLock.tryLock()) return;
+        try {
+            ZonedDateTime now = ZonedDateTime.now(ZoneId.of("Asia/Seoul"));
+            List<TradeLog> pendings = tradeLogPort.findPendingBefore(now);
+            if (pendings.isEmpty()) return;
+
+            ZonedDateTime timeout = now.minusMinutes(PENDING_TIMEOUT_MINUTES);
+            Map<Long, List<TradeLog>> pendingsByUser = pendings.stream()
+                    .collect(Collectors.groupingBy(TradeLog::getUserId));
+            Map<Long, User> userMap = toUserMap(pendingsByUser.keySet());
+            pendingsByUser.forEach((userId, userPendings) ->
+                    reconcileUser(userMap.get(userId), userPendings, timeout));
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private void reconcileUser(User user, List<TradeLog> pendings, ZonedDateTime timeout) {
+        Map<String, BrokerApiPort.OrderExecution> executions = user != null ? loadExecutions(user, pendings) : null;
+
+        for (TradeLog pending : pendings) {
+            boolean expired = pending.getTimestamp().isBefore(timeout);
+            if (executions == null) {
+                if (expired) handlePendingLegacy(pending, user);
+                continue;
             }
+            reconcileOrder(pending, user, executions.get(normalizeOrderId(pending.getOrderId())), expired);
         }
     }
 
     /**
-     * BUY PENDING 처리: 미체결이면 취소, 체결이면 FILLED
+     * @return orderId → 체결내역 (체결내역 조회 미지원 브로커 또는 조회 실패 시 null)
      */
-    public void handlePendingBuy(TradeLog pendingBuy) {
+    private Map<String, BrokerApiPort.OrderExecution> loadExecutions(User user, List<TradeLog> pendings) {
+        // 가장 오래된 PENDING 주문일 기준 (KST/현지 주문일 차이 대비 하루 여유)
+        LocalDate from = pendings.stream()
+                .map(pending -> pending.getTimestamp().withZoneSameInstant(ZoneId.of("Asia/Seoul")).toLocalDate())
+                .min(Comparator.naturalOrder())
+                .orElse(LocalDate.now(ZoneId.of("Asia/Seoul")))
+                .minusDays(1);
+        try {
+            if (!brokerApiPort.supportsOrderExecutions(user)) return null;
+            return brokerApiPort.getOrderExecutions(user, from).stream()
+                    .collect(Collectors.toMap(execution -> normalizeOrderId(execution.orderId()),
+                            Function.identity(), (a, b) -> a));
+        } catch (Exception e) {
+            log.warn("[Reconcile] {} execution inquiry failed, using cancel check: {}", user.getUsername(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void reconcileOrder(TradeLog pending, User user, BrokerApiPort.OrderExecution execution, boolean expired) {
+        try {
+            if (execution == null) {
+                // 체결내역에 없는 주문 (접수 직후면 다음 대사에서 재확인)
+                // 조회 페이지 한도/주문번호 형식/조회 기간 차이로 빠질 수 있으므로 타임아웃 시 취소 시도 결과로 판정
+                if (expired) {
+                    log.warn("[Reconcile] {} orderId={} not found in executions, using cancel check",
+                            pending.getTicker(), pending.getOrderId());
+                    handlePendingLegacy(pending, user);
+                }
+                return;
+            }
+
+            if (execution.isFilled()) {
+                markFilled(pending, user);
+                return;
+            }
+
+            if (execution.isPartiallyFilled()) {
+                if (!expired) return; // 잔량 체결 대기
+                // 타임아웃: 잔량 취소 성공 시에만 체결분 반영 (취소 실패면 주문이 살아있음 → 다음 대사에서 재확인)
+                BrokerApiPort.CancelResult result = brokerApiPort.cancelOrder(user, pending.getOrderId());
+                if (!result.success()) {
+                    log.warn("[Reconcile] {} orderId={} partially filled {}/{}, remainder cancel failed: {}",
+                            pending.getTicker(), pending.getOrderId(), execution.filledQuantity(),
+                            execution.orderQuantity(), result.message());
+                    return;
+                }
+                log.info("[Reconcile] {} orderId={} partially filled {}/{}, remainder cancelled", pending.getTicker(),
+                        pending.getOrderId(), execution.filledQuantity(), execution.orderQuantity());
+                if (pending.getAction() == StockOrder.OrderType.SELL) {
+                    markSellPartiallyFilled(pending, user, execution.filledQuantity());
+                } else {
+                    markFilled(pending, user);
+                }
+                return;
+            }
+
+            if (!execution.isOpen()) {
+                // 체결 0 + 미체결 0 → 거부/취소된 주문
+                tradeLogPort.updateStatus(pending.getId(), TradeLog.OrderStatus.CANCELLED);
+                log.info("[Reconcile] {} orderId={} rejected/cancelled at broker", pending.getTicker(), pending.getOrderId());
+                return;
+            }
+
+            if (expired) {
+                BrokerApiPort.CancelResult result = brokerApiPort.cancelOrder(user, pending.getOrderId());
+                if (result.success()) {
+                    tradeLogPort.updateStatus(pending.getId(), TradeLog.OrderStatus.CANCELLED);
+                    log.info("[Reconcile] {} orderId={} unfilled, cancelled", pending.getTicker(), pending.getOrderId());
+                } else {
+                    // 취소 실패를 체결로 간주하지 않음 → 다음 대사에서 체결내역으로 확인
+                    log.warn("[Reconcile] {} orderId={} cancel failed: {}", pending.getTicker(), pending.getOrderId(), result.message());
+                }
+            }
+        } catch (Exception e) {
+            log.error("[Reconcile] {} id={} failed: {}", pending.getTicker(), pending.getId(), e.getMessage());
+        }
+    }
+
+    private void markFilled(TradeLog pending, User user) {
+        if (pending.getAction() == StockOrder.OrderType.SELL) {
+            markSellFilled(pending, user);
+        } else {
+            tradeLogPort.updateStatus(pending.getId(), TradeLog.OrderStatus.FILLED);
+            log.info("[Reconcile] BUY 체결 확인: {} orderId={}", pending.getTicker(), pending.getOrderId());
+        }
+    }
+
+    /**
+     * SELL 체결 반영: FILLED + SELL id 이전의 FILLED BUY만 CLOSED
+     */
+    private void markSellFilled(TradeLog pendingSell, User user) {
+        tradeLogPort.updateStatus(pendingSell.getId(), TradeLog.OrderStatus.FILLED);
+        log.info("[PendingSell] 체결 확인: {}", pendingSell.getOrderId());
+
+        int closed = tradeLogPort.closeFilledBuysBefore(pendingSell.getUserId(), pendingSell.getTicker(), pendingSell.getId());
+        log.info("[PendingSell] Closed {} BUY Ticker({}) {}", closed, pendingSell.getTicker(), pendingSell.getUserId());
+
+        notificationPort.sendMessage(user.getUserId(), String.format("[PendingSell] %s ", pendingSell.getTicker()));
+    }
+
+    /**
+     * SELL 부분체결 반영: FILLED + 체결 수량만큼 오래된 FILLED BUY만 CLOSED (미체결분 BUY는 보유 유지)
+     */
+    private void markSellPartiallyFilled(TradeLog pendingSell, User user, int filledQuantity) {
+        tradeLogPort.updateStatus(pendingSell.getId(), TradeLog.OrderStatus.FILLED);
+        log.info("[PendingSell] 부분 체결 확인: {} ({}주)", pendingSell.getOrderId(), filledQuantity);
+
+        int closed = tradeLogPort.closeOldestFilledBuysBefore(
+                pendingSell.getUserId(), pendingSell.getTicker(), pendingSell.getId(), filledQuantity);
+        log.info("[PendingSell] Closed {} BUY Ticker({}) {}", closed, pendingSell.getTicker(), pendingSell.getUserId());
+
+        notificationPort.sendMessage(user.getUserId(),
+                String.format("[PendingSell] %s partial %d", pendingSell.getTicker(), filledQuantity));
+    }
+
+    // 주문번호 앞자리 0 패딩 차이 무시
+    private String normalizeOrderId(String orderId) {
+        return orderId == null ? null : orderId.strip().replaceFirst("^0+(?=.)", "");
+    }
+
+    private void handlePendingLegacy(TradeLog pending, User user) {
+        if (pending.getAction() == StockOrder.OrderType.BUY) {
+            handlePendingBuy(pending, user);
+        } else if (pending.getAction() == StockOrder.OrderType.SELL) {
+            handlePendingSell(pending, user);
+        }
+    }
+
+    /**
+     * BUY PENDING 처리 (체결내역 조회 불가 계좌): 취소 성공이면 미체결, 실패면 체결로 판정
+     */
+    public void handlePendingBuy(TradeLog pendingBuy, User user) {
         try {
-            User user = userPort.findById(pendingBuy.getUserId()).orElse(null);
             if (pendingBuy.getOrderId() == null || user == null) {
                 tradeLogPort.updateStatus(pendingBuy.getId(), TradeLog.OrderStatus.FAILED);
                 return;
@@ -194,11 +440,10 @@ public class TradingService implements TradingUseCase {
     }
 
     /**
-     * SELL PENDING 처리: 중복 제거 → 보유 확인 → 체결 시 BUY FILLED→CLOSED
+     * SELL PENDING 처리 (체결내역 조회 불가 계좌): 취소 실패면 체결로 판정 → BUY FILLED→CLOSED
      */
-    public void handlePendingSell(TradeLog pendingSell) {
+    public void handlePendingSell(TradeLog pendingSell, User user) {
         try {
-            User user = userPort.findById(pendingSell.getUserId()).orElse(null);
             if (pendingSell.getOrderId() == null || user == null) {
                 tradeLogPort.updateStatus(pendingSell.getId(), TradeLog.OrderStatus.FAILED);
                 return;
@@ -211,25 +456,69 @@ public class TradingService implements TradingUseCase {
                 return;
             }
 
-            tradeLogPort.updateStatus(pendingSell.getId(), TradeLog.OrderStatus.FILLED);
-            log.info("[PendingSell] 체결 확인: {}", pendingSell.getOrderId());
-
-            // SELL id 이전의 FILLED BUY만 CLOSED
-            int closed = tradeLogPort.closeFilledBuysBefore(pendingSell.getUserId(), pendingSell.getTicker(), pendingSell.getId());
-            log.info("[PendingSell] Closed {} BUY Ticker({}) {}", closed, pendingSell.getTicker(), pendingSell.getUserId());
-
-            notificationPort.sendMessage(user.getUserId(), String.format("[PendingSell] %s ", pendingSell.getTicker()));
+            markSellFilled(pendingSell, user);
         } catch (Exception e) {
             log.error("[PendingSell] {} id={} failed: {}", pendingSell.getTicker(), pendingSell.getId(), e.getMessage());
         }
     }
 
-    private void executeTimeout(List<TradingTarget> activeItems, Map<Long, User> userMap) {
+    /**
+     * 사용자별 계좌 잔고 1회 조회 → ticker 인덱스. 조회 실패한 사용자는 map에 없음 (해당 사용자 리스크 단계 skip)
+     */
+    private Map<Long, PositionBook> loadPositionBooks(List<TradingTarget> activeItems, Map<Long, User> userMap) {
+        Map<Long, PositionBook> books = new HashMap<>();
+        for (TradingTarget item : activeItems) {
+            Long userId = item.getUserId();
+            User user = userMap.get(userId);
+            if (user == null || books.containsKey(userId)) continue;
+            try {
+                books.put(userId, PositionBook.of(brokerApiPort.getAccountAsset(user)));
+            } catch (Exception e) {
+                log.error("[Risk] {} asset fetch failed: {}", user.getUsername(), e.getMessage());
+            }
+        }
+        return books;
+    }
+
+    /**
+     * 보유 + 대상 ticker 실시간 시세 구독 (사용자별 전체 목록 전달, 변경분만 반영됨)
+     */
+    private void subscribeQuotes(List<TradingTarget> activeItems, Map<Long, User> userMap,
+                                 Map<Long, PositionBook> books) {
+        Map<Long, Set<String>> tickersByUser = new HashMap<>();
+        for (TradingTarget item : activeItems) {
+            Set<String> tickers = tickersByUser.computeIfAbsent(item.getUserId(), k -> new HashSet<>());
+            tickers.add(item.getTicker());
+            tickers.add(item.getPredictionTicker());
+        }
+        books.forEach((userId, book) -> tickersByUser.computeIfAbsent(userId, k -> new HashSet<>()).addAll(book.getTickers()));
+
+        tickersByUser.forEach((userId, tickers) -> {
+            try {
+                marketDataPort.subscribe(userMap.get(userId), tickers);
+            } catch (Exception e) {
+                log.warn("[Risk] Quote subscribe failed for user {}: {}", userId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 실시간 시세 우선, 없거나 오래됐으면 REST 현재가 조회
+     */
+    private BigDecimal getCurrentPrice(User user, String ticker) {
+        return marketDataPort.getLastQuote(ticker)
+                .map(quote -> BigDecimal.valueOf(quote.price()))
+                .orElseGet(() -> brokerApiPort.getCurrentPrice(user, ticker));
+    }
+
+    private void executeTimeout(List<TradingTarget> activeItems, Map<Long, User> userMap,
+                                Map<Long, PositionBook> books) {
         ZonedDateTime now = ZonedDateTime.now(ZoneId.of("Asia/Seoul"));
         for (TradingTarget item : new ArrayList<>(activeItems)) {
             try {
                 User user = userMap.get(item.getUserId());
-                if (user == null) continue;
+                PositionBook book = books.get(item.getUserId());
+                if (user == null || book == null) continue;
                 int holding = tradeLogPort.getHoldingCount(item.getUserId(), item.getTicker());
                 if (holding <= 0) continue;
                 ZonedDateTime openedAt = tradeLogPort.getPositionOpenedAt(item.getUserId(), item.getTicker());
@@ -237,10 +526,15 @@ public class TradingService implements TradingUseCase {
                 long minutes = Duration.between(openedAt, now).toMinutes();
                 if (minutes < MAX_HOLDING_MINUTES) continue;
 
-                BigDecimal currentPrice = brokerApiPort.getCurrentPrice(user, item.getTicker());
+                // 잔고 조회 시 받은 현재가 사용, 브로커 보유 없으면(고아 BUY 정리 대상) 시세 조회
+                Asset.OwnedStock holdingStock = book.get(item.getTicker());
+                BigDecimal currentPrice = holdingStock != null
+                        ? holdingStock.getCurrentPrice()
+                        : getCurrentPrice(user, item.getTicker());
                 if (currentPrice != null && currentPrice.compareTo(BigDecimal.ZERO) > 0) {
-                    executeOrder(user, item, StockOrder.OrderType.SELL, currentPrice);
+                    BrokerApiPort.OrderResult result = sellOnce(user, item, currentPrice, book);
                     activeItems.remove(item);
+                    if (result == null) continue;
 
                     notificationPort.sendMessage(user.getUserId(), String.format("[Timeout] %s SELL Order (%d min)", item.getTicker(), minutes));
                 }
@@ -250,25 +544,23 @@ public class TradingService implements TradingUseCase {
         }
     }
 
-    private void executeStopLoss(List<TradingTarget> activeItems, Map<Long, User> userMap) {
+    private void executeStopLoss(List<TradingTarget> activeItems, Map<Long, User> userMap,
+                                 Map<Long, PositionBook> books) {
         for (TradingTarget item : new ArrayList<>(activeItems)) {
             try {
                 User user = userMap.get(item.getUserId());
-                if (user == null) continue;
-                Asset asset = assetUseCase.getAccountAsset(user.getUserId());
-                if (asset == null || asset.getOwnedStocks() == null) continue;
+                PositionBook book = books.get(item.getUserId());
+                if (user == null || book == null) continue;
 
-                Asset.OwnedStock holding = asset.getOwnedStocks().stream()
-                        .filter(s -> s.getStockCode().equals(item.getTicker()))
-                        .findFirst()
-                        .orElse(null);
+                Asset.OwnedStock holding = book.get(item.getTicker());
                 if (holding == null) continue;
 
                 BigDecimal profitRate = holding.getProfitRate();
 
                 if (item.isStopLossTriggered(profitRate)) {
-                    executeOrder(user, item, StockOrder.OrderType.SELL, holding.getCurrentPrice());
+                    BrokerApiPort.OrderResult result = sellOnce(user, item, holding.getCurrentPrice(), book);
                     activeItems.remove(item);
+                    if (result == null) continue;
 
                     notificationPort.sendMessage(user.getUserId(), String.format("[StopLoss] %s 손절 매도 (P&L: %s%%)", item.getTicker(), profitRate));
                 }
@@ -278,32 +570,39 @@ public class TradingService implements TradingUseCase {
         }
     }
 
-    private void executeTrailingStop(List<TradingTarget> activeItems, Map<Long, User> userMap) {
-        for (TradingTarget item : activeItems) {
+    private void executeTrailingStop(List<TradingTarget> activeItems, Map<Long, User> userMap,
+                                     Map<Long, PositionBook> books) {
+        for (TradingTarget item : new ArrayList<>(activeItems)) {
             try {
                 if (!item.isTrailingStopEnabled()) continue;
                 User user = userMap.get(item.getUserId());
-                if (user == null) continue;
-                Asset asset = assetUseCase.getAccountAsset(user.getUserId());
-                if (asset == null || asset.getOwnedStocks() == null) continue;
+                PositionBook book = books.get(item.getUserId());
+                if (user == null || book == null) continue;
 
-                Asset.OwnedStock holding = asset.getOwnedStocks().stream()
-                        .filter(s -> s.getStockCode().equals(item.getTicker()))
-                        .findFirst()
-                        .orElse(null);
+                Asset.OwnedStock holding = book.get(item.getTicker());
                 if (holding == null) continue;
 
                 BigDecimal currentProfitRate = holding.getProfitRate();
                 if (currentProfitRate.compareTo(BigDecimal.ZERO) <= 0) continue;
 
-                List<StockCandle> candles = brokerApiPort.getRecentCandles(user, item.getTicker(), 60);
-                if (candles == null || candles.isEmpty()) continue;
+                SlidingWindowExtreme trailingHigh = trailingHigh(item);
+                if (trailingHigh.lastTimestamp() < System.currentTimeMillis() - TRAILING_STALE_MILLIS) {
+                    // AI 사이클 갱신이 없었던 경우에만 직접 조회
+                    CandleSeries candles = brokerApiPort.getRecentCandles(user, item.getTicker(),
+                            Math.max(TRAILING_FALLBACK_CANDLES, item.getTrailingWindowMinutes()));
+                    if (candles == null || candles.isEmpty()) continue;
+                    trailingHigh.updateAll(candles);
+                }
 
-                BigDecimal windowHigh = StockCandle.windowHigh(candles, item.getTrailingWindowMinutes());
-                BigDecimal currentPrice = holding.getCurrentPrice();
+                BigDecimal windowHigh = BigDecimal.valueOf(trailingHigh.value());
+                BigDecimal currentPrice = marketDataPort.getLastQuote(item.getTicker())
+                        .map(quote -> BigDecimal.valueOf(quote.price()))
+                        .orElse(holding.getCurrentPrice());
 
                 if (item.isTrailingStopTriggered(windowHigh, currentPrice)) {
-                    executeOrder(user, item, StockOrder.OrderType.SELL, currentPrice);
+                    BrokerApiPort.OrderResult result = sellOnce(user, item, currentPrice, book);
+                    activeItems.remove(item);
+                    if (result == null) continue;
 
                     notificationPort.sendMessage(user.getUserId(), String.format("[TrailingStop] %s", item.getTicker()));
                 }
@@ -313,70 +612,219 @@ public class TradingService implements TradingUseCase {
         }
     }
 
-    private Map<String, CandleData> fetchAllCandles(List<TradingTarget> items, Map<Long, User> userMap) {
-        Map<String, User> tickerToUser = new LinkedHashMap<>();
-        for (TradingTarget item : items) {
+    private void refreshLivePositions(List<TradingTarget> activeItems, Map<Long, User> userMap,
+                                      Map<Long, PositionBook> books) {
+        Map<String, List<LivePosition>> next = new HashMap<>();
+        for (TradingTarget item : activeItems) {
             User user = userMap.get(item.getUserId());
-            if (user != null) {
-                String predTicker = item.getPredictionTicker();
-                tickerToUser.putIfAbsent(predTicker, user);
-                tickerToUser.putIfAbsent(item.getTicker(), user);
+            PositionBook book = books.get(item.getUserId());
+            if (user == null || book == null) continue;
+            Asset.OwnedStock holding = book.get(item.getTicker());
+            if (holding == null || holding.getAveragePrice() == null || holding.getAveragePrice().signum() <= 0) continue;
+
+            next.computeIfAbsent(item.getTicker(), k -> new ArrayList<>())
+                    .add(new LivePosition(user, item, book, holding.getAveragePrice()));
+        }
+        livePositions.keySet().retainAll(next.keySet());
+        livePositions.putAll(next);
+    }
+
+    /**
+     * 실시간 체결마다 해당 ticker 보유 포지션의 손절/트레일링 조건 평가 → 충족 시 즉시 매도 (피드 스레드는 막지 않음)
+     */
+    private void onPriceTick(PriceTick tick) {
+        List<LivePosition> positions = livePositions.get(tick.ticker());
+        if (positions == null || tick.price() <= 0) return;
+
+        BigDecimal price = BigDecimal.valueOf(tick.price());
+        for (LivePosition position : positions) {
+            TradingTarget item = position.item();
+            BigDecimal profitRate = price.subtract(position.averagePrice())
+                    .divide(position.averagePrice(), 6, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(100));
+
+            String reason = null;
+            if (item.isStopLossTriggered(profitRate)) {
+                reason = "StopLoss";
+            } else if (item.isTrailingStopEnabled() && profitRate.signum() > 0) {
+                SlidingWindowExtreme trailingHigh = trailingHigh(item);
+                // 진행중 1분봉 고가로 윈도우 갱신 (같은 봉은 revision 처리)
+                marketDataPort.getLastQuote(tick.ticker())
+                        .ifPresent(quote -> trailingHigh.update(quote.barStart(), quote.high()));
+                if (item.isTrailingStopTriggered(BigDecimal.valueOf(trailingHigh.value()), price)) {
+                    reason = "TrailingStop";
+                }
             }
+            if (reason == null) continue;
+
+            String trigger = reason;
+            Thread.ofVirtual().start(() -> sellOnTick(position, price, trigger, tick.timestamp()));
         }
+    }
 
-        Map<String, CandleData> cache = new HashMap<>();
+    private void sellOnTick(LivePosition position, BigDecimal price, String reason, long tickTimestamp) {
+        TradingTarget item = position.item();
+        try {
+            BrokerApiPort.OrderResult result = sellOnce(position.user(), item, price, position.book());
+            if (result == null) return;
+
+            log.info("[{}] {} tick sell @ {} (tick→order {}ms)", reason, item.getTicker(), price,
+                    System.currentTimeMillis() - tickTimestamp);
+            notificationPort.sendMessage(position.user().getUserId(), String.format("[%s] %s @ %s", reason, item.getTicker(), price));
+        } catch (Exception e) {
+            log.error("[{}] {} tick sell failed: {}", reason, item.getTicker(), e.getMessage());
+        }
+    }
+
+    /**
+     * 같은 userId-ticker 매도가 진행중이거나 이미 PENDING SELL이 있으면 주문하지 않고 null.
+     * 확인~주문은 포지션 lock 안에서 수행. 주문한 포지션은 틱 평가 대상에서 제외 (실패 시 다음 리스크 사이클에서 다시 등록)
+     */
+    private BrokerApiPort.OrderResult sellOnce(User user, TradingTarget item, BigDecimal price, PositionBook book) {
+        String key = positionKey(item);
+        if (!sellsInFlight.add(key)) {
+            log.info("[Order] {} sell already in flight, skip", item.getTicker());
+            return null;
+        }
+        ReentrantLock lock = positionLocks.get(key);
+        lock.lock();
+        try {
+            if (tradeLogPort.hasPendingSell(item.getUserId(), item.getTicker())) {
+                log.info("[Order] {} pending sell exists, skip", item.getTicker());
+                return null;
+            }
+            livePositions.computeIfPresent(item.getTicker(), (ticker, positions) -> {
+                List<LivePosition> remaining = positions.stream()
+                        .filter(p -> !p.item().getUserId().equals(item.getUserId()))
+                        .toList();
+                return remaining.isEmpty() ? null : remaining;
+            });
+            return executeOrder(user, item, StockOrder.OrderType.SELL, price, book);
+        } finally {
+            lock.unlock();
+            sellsInFlight.remove(key);
+        }
+    }
 
-        for (Map.Entry<String, User> entry : tickerToUser.entrySet()) {
-            String ticker = entry.getKey();
-            User user = entry.getValue();
+    private BrokerApiPort.OrderResult buyLocked(User user, TradingTarget item, BigDecimal price) {
+        ReentrantLock lock = positionLocks.get(positionKey(item));
+        lock.lock();
+        try {
+            return executeOrder(user, item, StockOrder.OrderType.BUY, price, null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String positionKey(TradingTarget item) {
+        return item.getUserId() + "-" + item.getTicker();
+    }
+
+    private SlidingWindowExtreme trailingHigh(TradingTarget item) {
+        int window = item.getTrailingWindowMinutes();
+        return trailingHighs.computeIfAbsent(item.getTicker() + "-" + window, k -> SlidingWindowExtreme.high(window));
+    }
+
+    private void updateTrailingHighs(List<TradingTarget> items, Map<String, CandleData> candleCache) {
+        for (TradingTarget item : items) {
+            if (!item.isTrailingStopEnabled()) continue;
+            CandleData candles = candleCache.get(item.getTicker());
+            if (candles == null || candles.minute().isEmpty()) continue;
+            trailingHigh(item).updateAll(candles.minute());
+        }
+    }
+
+    /**
+     * ticker별 1분봉/5분봉을 가상 스레드로 병렬 조회 (사이클 시간 = 가장 느린 ticker 기준).
+     * 요청 속도 제한은 브로커 어댑터의 앱키별 rate limiter에서 처리
+     */
+    private Map<String, CandleData> fetchAllCandles(List<TradingTarget> items, Map<Long, User> userMap) {
+        Map<String, User> tickerToUser = tickerToUser(items, userMap);
+
+        Map<String, Future<CandleSeries>> minuteFutures = new LinkedHashMap<>();
+        Map<String, Future<CandleSeries>> fiveMinFutures = new LinkedHashMap<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Map.Entry<String, User> entry : tickerToUser.entrySet()) {
+                String ticker = entry.getKey();
+                User user = entry.getValue();
+                minuteFutures.put(ticker, executor.submit(() -> brokerApiPort.getRecentCandles(user, ticker, MINUTE_CANDLE_LIMIT)));
+                fiveMinFutures.put(ticker, executor.submit(() -> brokerApiPort.getRecentCandles5Min(user, ticker, FIVE_MIN_CANDLE_LIMIT)));
+            }
+        }
 
+        Map<String, CandleData> cache = new HashMap<>();
+        for (String ticker : tickerToUser.keySet()) {
             try {
-                List<StockCandle> minute = brokerApiPort.getRecentCandles(user, ticker, 200);
-                minute = minute != null ? minute : List.of();
-                sleep(100);
-                List<StockCandle> fiveMin = brokerApiPort.getRecentCandles5Min(user, ticker, 300);
-                fiveMin = fiveMin != null ? fiveMin : List.of();
-                sleep(100);
-
-                cache.put(ticker, new CandleData(minute, fiveMin));
-            } catch (Exception e) {
-                log.error("[Fetch] {} failed: {}", ticker, e.getMessage());
-                cache.put(ticker, new CandleData(List.of(), List.of()));
+                CandleSeries minute = minuteFutures.get(ticker).get();
+                CandleSeries fiveMin = fiveMinFutures.get(ticker).get();
+                cache.put(ticker, new CandleData(
+                        minute != null ? minute : CandleSeries.empty(),
+                        fiveMin != null ? fiveMin : CandleSeries.empty()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cache.put(ticker, new CandleData(CandleSeries.empty(), CandleSeries.empty()));
+            } catch (ExecutionException e) {
+                log.error("[Fetch] {} failed: {}", ticker, e.getCause().getMessage());
+                cache.put(ticker, new CandleData(CandleSeries.empty(), CandleSeries.empty()));
             }
         }
 
         return cache;
     }
 
+    /**
+     * 조회 대상 ticker(거래 + 예측 기준) → 조회에 사용할 사용자
+     */
+    private Map<String, User> tickerToUser(List<TradingTarget> items, Map<Long, User> userMap) {
+        Map<String, User> tickerToUser = new LinkedHashMap<>();
+        for (TradingTarget item : items) {
+            User user = userMap.get(item.getUserId());
+            if (user != null) {
+                String predTicker = item.getPredictionTicker();
+                tickerToUser.putIfAbsent(predTicker, user);
+                tickerToUser.putIfAbsent(item.getTicker(), user);
+            }
+        }
+        return tickerToUser;
+    }
+
     private Map<String, AiModelPort.PredictionResult> fetchPredictions(List<TradingTarget> items,
-                                                                        Map<String, CandleData> candleCache) {
+                                                                        Map<String, CandleData> candleCache,
+                                                                        Instant deadline) {
         Map<String, List<TradingTarget>> grouped = new LinkedHashMap<>();
         for (TradingTarget item : items) {
             grouped.computeIfAbsent(item.getPredictionTicker(), k -> new ArrayList<>()).add(item);
         }
 
         Map<String, AiModelPort.PredictionResult> predictions = new HashMap<>();
+        List<AiModelPort.PredictionRequest> requests = new ArrayList<>();
         for (Map.Entry<String, List<TradingTarget>> entry : grouped.entrySet()) {
             String predTicker = entry.getKey();
             CandleData candles = candleCache.get(predTicker);
 
             if (candles == null || candles.minute().isEmpty() || candles.fiveMin().isEmpty()) {
                 log.warn("[Predict] No candle data for {}", predTicker);
-                predictions.put(predTicker, new AiModelPort.PredictionResult(0, 0.0, List.of(1.0, 0.0, 0.0)));
+                predictions.put(predTicker, AiModelPort.PredictionResult.hold());
                 continue;
             }
 
-            try {
-                TradingTarget firstItem = entry.getValue().getFirst();
-                AiModelPort.PredictionResult result = aiModelPort.predict(
-                        predTicker, "scalping", firstItem.getUserId(),
-                        candles.minute(), candles.fiveMin(),
-                        firstItem.getBuyThreshold(), firstItem.getSellThreshold());
-                predictions.put(predTicker, result);
-            } catch (Exception e) {
-                log.error("[Predict] Failed for {}: {}", predTicker, e.getMessage());
-                predictions.put(predTicker, new AiModelPort.PredictionResult(0, 0.0, List.of(1.0, 0.0, 0.0)));
+            TradingTarget firstItem = entry.getValue().getFirst();
+            requests.add(new AiModelPort.PredictionRequest(
+                    predTicker, "scalping", firstItem.getUserId(),
+                    candles.minute(), candles.fiveMin(),
+                    firstItem.getBuyThreshold(), firstItem.getSellThreshold()));
+        }
+
+        // 전체 ticker 한 번에 요청 (1 round trip)
+        try {
+            List<AiModelPort.PredictionResult> results = aiModelPort.predictBatch(requests, deadline);
+            for (int i = 0; i < requests.size(); i++) {
+                predictions.put(requests.get(i).ticker(), results.get(i));
             }
+        } catch (Exception e) {
+            log.error("[Predict] Batch failed: {}", e.getMessage());
+            requests.forEach(r -> predictions.put(r.ticker(), AiModelPort.PredictionResult.hold()));
         }
 
         log.info("[Predict] items={} uniqueTickers={}", items.size(), grouped.size());
@@ -387,6 +835,8 @@ public class TradingService implements TradingUseCase {
                                           Map<Long, User> userMap,
                                           Map<String, AiModelPort.PredictionResult> predictions,
                                           Map<String, CandleData> candleCache) {
+        // 매도 수량용 보유 종목은 사용자별 첫 매도 시 1회만 조회
+        Map<Long, PositionBook> books = new HashMap<>();
         for (TradingTarget item : items) {
             try {
                 User user = userMap.get(item.getUserId());
@@ -402,16 +852,24 @@ public class TradingService implements TradingUseCase {
                 String label = prediction == 1 ? "BUY" : "SELL";
                 StockOrder.OrderType orderType = prediction == 1 ? StockOrder.OrderType.BUY : StockOrder.OrderType.SELL;
 
+                // 실시간 체결가 우선, 없으면 마지막 1분봉 종가
                 CandleData candles = candleCache.get(item.getTicker());
-                BigDecimal price = BigDecimal.ZERO;
-                if (candles != null && !candles.minute().isEmpty()) {
-                    price = candles.minute().getLast().getClose();
+                BigDecimal price = marketDataPort.getLastQuote(item.getTicker())
+                        .map(quote -> BigDecimal.valueOf(quote.price()))
+                        .orElse(BigDecimal.ZERO);
+                if (price.signum() == 0 && candles != null && !candles.minute().isEmpty()) {
+                    price = BigDecimal.valueOf(candles.minute().lastClose());
                 }
 
                 if (price.compareTo(BigDecimal.ZERO) <= 0) continue;
 
-                BrokerApiPort.OrderResult orderResult = executeOrder(user, item, orderType, price);
-                if (orderResult.success()) {
+                PositionBook book = orderType == StockOrder.OrderType.SELL
+                        ? books.computeIfAbsent(user.getUserId(), id -> PositionBook.of(brokerApiPort.getAccountAsset(user)))
+                        : null;
+                BrokerApiPort.OrderResult orderResult = orderType == StockOrder.OrderType.SELL
+                        ? sellOnce(user, item, price, book)
+                        : buyLocked(user, item, price);
+                if (orderResult != null && orderResult.success()) {
                     String text = String.format("[Trading] %s %s (confidence: %.1f%%)", item.getTicker(), label, rawResult.confidence() * 100);
                     notificationPort.sendMessage(user.getUserId(), text);
                 }
@@ -423,14 +881,7 @@ public class TradingService implements TradingUseCase {
 
     private int getSellQuantity(User user, TradingTarget item) {
         try {
-            Asset asset = assetUseCase.getAccountAsset(user.getUserId());
-            if (asset == null || asset.getOwnedStocks() == null) return 0;
-
-            return asset.getOwnedStocks().stream()
-                    .filter(s -> s.getStockCode().equals(item.getTicker()))
-                    .findFirst()
-                    .map(Asset.OwnedStock::getQuantity)
-                    .orElse(0);
+            return PositionBook.of(brokerApiPort.getAccountAsset(user)).getQuantity(item.getTicker());
         } catch (Exception e) {
             log.error("[Quantity] Failed to get holdings: {}", e.getMessage());
             return 0;
@@ -486,12 +937,4 @@ public class TradingService implements TradingUseCase {
             }
         }
     }
-
-    private void sleep(long ms) {
-        try {
-            Thread.sleep(ms);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-    }
 }
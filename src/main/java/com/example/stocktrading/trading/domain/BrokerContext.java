@@ -4,20 +4,19 @@ import com.example.stocktrading.user.domain.BrokerType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
 
+/**
+ * 브로커 호출 컨텍스트 (불변 — RoutingBrokerAdapter에서 사용자별로 캐싱해서 공유)
+ */
 @Getter
-@Setter
 @Builder
-@NoArgsConstructor
 @AllArgsConstructor
 public class BrokerContext {
 
-    private String appKey;
-    private String appSecret;
-    private String accountNo;
-    private String cano;
-    private String acntPrdtCd;
-    private BrokerType brokerType;
+    private final String appKey;
+    private final String appSecret;
+    private final String accountNo;
+    private final String cano;
+    private final String acntPrdtCd;
+    private final BrokerType brokerType;
 }
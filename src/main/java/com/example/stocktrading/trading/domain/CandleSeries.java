@@ -0,0 +1,160 @@
+package com.example.stocktrading.trading.domain;
+
+/**
+ * OHLCV 캔들 시계열 (primitive 컬럼 + 링버퍼)
+ * index 0 = 가장 오래된 봉, size()-1 = 최신 봉. 가득 찬 상태에서 append 하면 가장 오래된 봉을 덮어씀
+ */
+public class CandleSeries {
+
+    private final int capacity;
+    private final long[] timestamps; // epoch millis
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final double[] volume;
+    private final boolean readOnly;
+    private int head;
+    private int size;
+
+    public CandleSeries(int capacity) {
+        this(capacity, new long[capacity], new double[capacity], new double[capacity],
+                new double[capacity], new double[capacity], new double[capacity], false, 0, 0);
+    }
+
+    private CandleSeries(int capacity, long[] timestamps, double[] open, double[] high, double[] low,
+                         double[] close, double[] volume, boolean readOnly, int head, int size) {
+        this.capacity = capacity;
+        this.timestamps = timestamps;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.readOnly = readOnly;
+        this.head = head;
+        this.size = size;
+    }
+
+    public static CandleSeries empty() {
+        return new CandleSeries(0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void append(long timestamp, double o, double h, double l, double c, double v) {
+        checkWritable();
+        if (capacity == 0) {
+            throw new IllegalStateException("CandleSeries has no capacity");
+        }
+        int idx;
+        if (size < capacity) {
+            idx = physical(size);
+            size++;
+        } else {
+            idx = head;
+            head = (head + 1) % capacity;
+        }
+        timestamps[idx] = timestamp;
+        open[idx] = o;
+        high[idx] = h;
+        low[idx] = l;
+        close[idx] = c;
+        volume[idx] = v;
+    }
+
+    public void appendAll(CandleSeries other) {
+        for (int i = 0; i < other.size(); i++) {
+            int idx = other.physical(i);
+            append(other.timestamps[idx], other.open[idx], other.high[idx],
+                    other.low[idx], other.close[idx], other.volume[idx]);
+        }
+    }
+
+    /**
+     * timestamp 이상인 꼬리 봉 제거 (진행중 봉 revision 병합 전 사용)
+     */
+    public void truncateFrom(long timestamp) {
+        checkWritable();
+        while (size > 0 && timestampAt(size - 1) >= timestamp) {
+            size--;
+        }
+    }
+
+    public long timestampAt(int i) {
+        return timestamps[physical(checkIndex(i))];
+    }
+
+    public double openAt(int i) {
+        return open[physical(checkIndex(i))];
+    }
+
+    public double highAt(int i) {
+        return high[physical(checkIndex(i))];
+    }
+
+    public double lowAt(int i) {
+        return low[physical(checkIndex(i))];
+    }
+
+    public double closeAt(int i) {
+        return close[physical(checkIndex(i))];
+    }
+
+    public double volumeAt(int i) {
+        return volume[physical(checkIndex(i))];
+    }
+
+    public long lastTimestamp() {
+        return timestampAt(size - 1);
+    }
+
+    public double lastClose() {
+        return closeAt(size - 1);
+    }
+
+    /**
+     * 최근 n개 봉에 대한 읽기 전용 view (배열 공유, 복사 없음). 원본 변경 시 내용이 바뀜
+     */
+    public CandleSeries window(int n) {
+        int count = Math.min(n, size);
+        int from = capacity == 0 ? 0 : (head + size - count) % capacity;
+        return new CandleSeries(capacity, timestamps, open, high, low, close, volume, true, from, count);
+    }
+
+    /**
+     * 최근 n개 봉 복사본 (다른 스레드에 넘길 스냅샷)
+     */
+    public CandleSeries copyOf(int n) {
+        CandleSeries copy = new CandleSeries(Math.min(n, size));
+        copy.appendAll(window(n));
+        return copy;
+    }
+
+    private int physical(int i) {
+        return (head + i) % capacity;
+    }
+
+    private int checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+        }
+        return i;
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("CandleSeries view is read-only");
+        }
+    }
+}
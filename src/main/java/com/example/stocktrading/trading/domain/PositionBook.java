@@ -0,0 +1,45 @@
+package com.example.stocktrading.trading.domain;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 사용자 보유 종목 스냅샷 (ticker → OwnedStock). 리스크 사이클 시작 시 1회 조회해서 공유
+ */
+public class PositionBook {
+
+    private final Map<String, Asset.OwnedStock> positions;
+
+    private PositionBook(Map<String, Asset.OwnedStock> positions) {
+        this.positions = positions;
+    }
+
+    public static PositionBook of(Asset asset) {
+        if (asset == null || asset.getOwnedStocks() == null) {
+            return new PositionBook(Collections.emptyMap());
+        }
+        Map<String, Asset.OwnedStock> positions = new HashMap<>();
+        for (Asset.OwnedStock stock : asset.getOwnedStocks()) {
+            positions.putIfAbsent(stock.getStockCode(), stock);
+        }
+        return new PositionBook(positions);
+    }
+
+    /**
+     * 보유 종목 (미보유면 null)
+     */
+    public Asset.OwnedStock get(String ticker) {
+        return positions.get(ticker);
+    }
+
+    public int getQuantity(String ticker) {
+        Asset.OwnedStock stock = positions.get(ticker);
+        return stock != null ? stock.getQuantity() : 0;
+    }
+
+    public Set<String> getTickers() {
+        return positions.keySet();
+    }
+}
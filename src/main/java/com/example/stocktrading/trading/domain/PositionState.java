@@ -0,0 +1,94 @@
+package com.example.stocktrading.trading.domain;
+
+import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * (userId, ticker) 포지션 상태: PENDING BUY/SELL 주문, FILLED BUY lot(보유분)과 각 체결 시각.
+ * trade_logs 상태 변경을 그대로 반영 (PENDING → FILLED/CANCELLED/FAILED, FILLED BUY → CLOSED)
+ */
+public class PositionState {
+
+    private final Set<Long> pendingBuys = new HashSet<>();
+    private final Set<Long> pendingSells = new HashSet<>();
+    private final TreeMap<Long, ZonedDateTime> filledLots = new TreeMap<>(); // BUY id → timestamp
+
+    /**
+     * trade log 1건의 현재 상태 반영 (같은 id의 이전 상태는 대체)
+     */
+    public synchronized void apply(TradeLog tradeLog) {
+        Long id = tradeLog.getId();
+        pendingBuys.remove(id);
+        pendingSells.remove(id);
+        filledLots.remove(id);
+
+        boolean buy = tradeLog.getAction() == StockOrder.OrderType.BUY;
+        switch (tradeLog.getStatus()) {
+            case PENDING -> (buy ? pendingBuys : pendingSells).add(id);
+            case FILLED -> {
+                if (buy) filledLots.put(id, tradeLog.getTimestamp());
+            }
+            default -> {
+                // CLOSED / CANCELLED / FAILED → 상태에서 제거
+            }
+        }
+    }
+
+    /**
+     * SELL 체결 시 해당 SELL 이전 FILLED BUY 청산
+     */
+    public synchronized int closeLotsBefore(Long beforeId) {
+        var closed = filledLots.headMap(beforeId);
+        int count = closed.size();
+        closed.clear();
+        return count;
+    }
+
+    /**
+     * SELL 부분체결 시 해당 SELL 이전 FILLED BUY 중 오래된 순으로 최대 count개 청산
+     */
+    public synchronized int closeOldestLotsBefore(Long beforeId, int count) {
+        var candidates = filledLots.headMap(beforeId, false);
+        int closed = 0;
+        while (closed < count && !candidates.isEmpty()) {
+            candidates.pollFirstEntry();
+            closed++;
+        }
+        return closed;
+    }
+
+    public synchronized int closeAllLots() {
+        int count = filledLots.size();
+        filledLots.clear();
+        return count;
+    }
+
+    public synchronized boolean hasPendingSell() {
+        return !pendingSells.isEmpty();
+    }
+
+    public synchronized boolean hasPendingBuy() {
+        return !pendingBuys.isEmpty();
+    }
+
+    public synchronized int getHoldingCount() {
+        return filledLots.size();
+    }
+
+    /**
+     * 보유 lot 중 가장 오래된 체결 시각 (보유 없으면 null)
+     */
+    public synchronized ZonedDateTime getOpenedAt() {
+        return filledLots.values().stream()
+                .filter(Objects::nonNull)
+                .min(ZonedDateTime::compareTo)
+                .orElse(null);
+    }
+
+    public synchronized boolean isEmpty() {
+        return pendingBuys.isEmpty() && pendingSells.isEmpty() && filledLots.isEmpty();
+    }
+}
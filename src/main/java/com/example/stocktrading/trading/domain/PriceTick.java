@@ -0,0 +1,7 @@
+package com.example.stocktrading.trading.domain;
+
+/**
+ * 실시간 체결 1건 (timestamp = epoch millis)
+ */
+public record PriceTick(String ticker, long timestamp, double price, double volume) {
+}
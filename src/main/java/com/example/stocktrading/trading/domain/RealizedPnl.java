@@ -0,0 +1,33 @@
+package com.example.stocktrading.trading.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * (userId, ticker, 일자) 실현손익 집계
+ * SELL 1건 실현손익 = 매도가 × 청산 BUY 수 - 청산 BUY 매수가 합
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class RealizedPnl {
+
+    private static final ZoneId TRADE_ZONE = ZoneId.of("Asia/Seoul");
+
+    private final Long userId;
+    private final String ticker;
+    private final LocalDate tradeDate;
+    private final BigDecimal profit;
+    private final int sellCount;
+    private final int closedBuyCount;
+
+    public static LocalDate tradeDateOf(ZonedDateTime timestamp) {
+        return timestamp.withZoneSameInstant(TRADE_ZONE).toLocalDate();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.stocktrading.trading.domain;
+
+/**
+ * 최근 window개 봉의 최고가/최저가를 monotonic deque로 유지 (봉 추가 시 amortized O(1), 조회 O(1))
+ * timestamp는 봉 시작 시각(barMillis 단위 절사)으로 정규화 → 실시간 체결(barStart)과 REST 분봉 시각이 달라도 같은 봉이면 revision으로 처리
+ */
+public class SlidingWindowExtreme {
+
+    private static final long MINUTE_MILLIS = 60_000L;
+
+    private final int window;
+    private final long barMillis;
+    private final int sign; // high = +1, low = -1 (부호 반전으로 최소값도 최대값 deque로 처리)
+
+    // deque: (봉 순번, 값) 원형 배열
+    private final long[] dequeSeqs;
+    private final double[] dequeValues;
+    private int dequeHead;
+    private int dequeSize;
+
+    // window 구간 원본값 (revision으로 값이 내려갈 때 deque 재구성용)
+    private final double[] rawValues;
+    private long lastSeq = -1;
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    private SlidingWindowExtreme(int window, long barMillis, int sign) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+        if (barMillis <= 0) {
+            throw new IllegalArgumentException("barMillis must be positive: " + barMillis);
+        }
+        this.window = window;
+        this.barMillis = barMillis;
+        this.sign = sign;
+        this.dequeSeqs = new long[window];
+        this.dequeValues = new double[window];
+        this.rawValues = new double[window];
+    }
+
+    /**
+     * 1분봉 window개 최고가
+     */
+    public static SlidingWindowExtreme high(int window) {
+        return new SlidingWindowExtreme(window, MINUTE_MILLIS, 1);
+    }
+
+    /**
+     * 1분봉 window개 최저가
+     */
+    public static SlidingWindowExtreme low(int window) {
+        return new SlidingWindowExtreme(window, MINUTE_MILLIS, -1);
+    }
+
+    /**
+     * series 중 마지막 반영 봉 이후(동일 시각 포함)만 반영
+     */
+    public synchronized void updateAll(CandleSeries series) {
+        for (int i = 0; i < series.size(); i++) {
+            long ts = series.timestampAt(i);
+            if (barKey(ts) < lastTimestamp) continue;
+            update(ts, sign > 0 ? series.highAt(i) : series.lowAt(i));
+        }
+    }
+
+    public synchronized void update(long timestamp, double value) {
+        long bar = barKey(timestamp);
+        if (bar < lastTimestamp) return;
+        double v = value * sign;
+
+        if (bar == lastTimestamp) {
+            int slot = (int) (lastSeq % window);
+            double prev = rawValues[slot];
+            rawValues[slot] = v;
+            if (v >= prev) {
+                push(lastSeq, v);
+            } else {
+                rebuild();
+            }
+            return;
+        }
+
+        lastSeq++;
+        lastTimestamp = bar;
+        rawValues[(int) (lastSeq % window)] = v;
+        push(lastSeq, v);
+    }
+
+    /**
+     * 현재 window 극값 (반영된 봉이 없으면 0)
+     */
+    public synchronized double value() {
+        return dequeSize == 0 ? 0 : dequeValues[dequeHead] * sign;
+    }
+
+    /**
+     * 마지막 반영 봉 시작 시각
+     */
+    public synchronized long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public int window() {
+        return window;
+    }
+
+    private long barKey(long timestamp) {
+        return timestamp - Math.floorMod(timestamp, barMillis);
+    }
+
+    private void push(long seq, double v) {
+        while (dequeSize > 0 && dequeSeqs[dequeHead] <= seq - window) {
+            dequeHead = (dequeHead + 1) % window;
+            dequeSize--;
+        }
+        while (dequeSize > 0 && dequeValues[backIndex()] <= v) {
+            dequeSize--;
+        }
+        int idx = (dequeHead + dequeSize) % window;
+        dequeSeqs[idx] = seq;
+        dequeValues[idx] = v;
+        dequeSize++;
+    }
+
+    private void rebuild() {
+        dequeHead = 0;
+        dequeSize = 0;
+        for (long seq = Math.max(0, lastSeq - window + 1); seq <= lastSeq; seq++) {
+            push(seq, rawValues[(int) (seq % window)]);
+        }
+    }
+
+    private int backIndex() {
+        return (dequeHead + dequeSize - 1) % window;
+    }
+}
@@ -23,6 +23,7 @@ public class TradeLog {
     private String orderId;
     @Builder.Default
     private OrderStatus status = OrderStatus.PENDING;
+    private Long closedById; // CLOSED BUY를 청산한 SELL id (고아 청산은 null)
 
     public enum OrderStatus {
         PENDING,
@@ -0,0 +1,11 @@
+package com.example.stocktrading.trading.domain;
+
+/**
+ * trade log 조회 조건 (null 항목은 조건 없음)
+ */
+public record TradeLogFilter(String ticker, StockOrder.OrderType action, TradeLog.OrderStatus status) {
+
+    public static TradeLogFilter none() {
+        return new TradeLogFilter(null, null, null);
+    }
+}
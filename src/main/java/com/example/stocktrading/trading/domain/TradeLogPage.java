@@ -0,0 +1,37 @@
+package com.example.stocktrading.trading.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * (timestamp, id) keyset 페이지. 최신순, nextCursor가 null이면 마지막 페이지
+ */
+public record TradeLogPage(List<TradeLog> items, String nextCursor) {
+
+    /**
+     * 페이지 마지막 행 위치. 다음 페이지는 이 행보다 오래된 행부터
+     */
+    public record Cursor(ZonedDateTime timestamp, Long id) {
+
+        public static Cursor of(TradeLog last) {
+            return new Cursor(last.getTimestamp(), last.getId());
+        }
+
+        public String encode() {
+            String raw = timestamp + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = raw.lastIndexOf('|');
+                return new Cursor(ZonedDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("invalid cursor: " + cursor);
+            }
+        }
+    }
+}
@@ -3,5 +3,35 @@ package com.example.stocktrading.user.adapter.out.notification;
 import com.example.stocktrading.user.domain.User;
 
 public interface NotificationClient {
+
+    /** 사용자 알림 설정 (토큰/채널) 존재 여부 */
+    boolean isConfigured(User user);
+
+    /** 전송 속도 제한 단위 (봇 토큰 등) */
+    String rateLimitKey(User user);
+
+    /**
+     * 동기 전송. 실패 시 예외
+     * (RetryAfterException: 서버 지정 시간 후 재시도, RejectedException: 재시도 불가)
+     */
     void sendMessage(User user, String text);
+
+    class RetryAfterException extends RuntimeException {
+        private final long retryAfterMillis;
+
+        public RetryAfterException(long retryAfterMillis) {
+            super("rate limited, retry after " + retryAfterMillis + "ms");
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        public long getRetryAfterMillis() {
+            return retryAfterMillis;
+        }
+    }
+
+    class RejectedException extends RuntimeException {
+        public RejectedException(String message) {
+            super(message);
+        }
+    }
 }
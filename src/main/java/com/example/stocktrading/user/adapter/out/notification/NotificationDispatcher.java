@@ -0,0 +1,279 @@
+package com.example.stocktrading.user.adapter.out.notification;
+
+import com.example.stocktrading.user.application.port.out.UserPort;
+import com.example.stocktrading.user.domain.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 알림 비동기 전송.
+ * - 호출자는 bounded queue에 넣기만 함 (가득 차면 폐기 + drop 집계), 사용자 조회/HTTP 전송은 전용 스레드에서 처리
+ * - 사용자(chat)별로 coalesce-ms 동안 모인 메시지를 1건으로 합쳐 전송 (최대 4096자, 넘치면 다음 전송으로)
+ * - 봇별/chat별 최소 전송 간격 (Telegram 제한: 봇 30건/초, chat 1건/초), 429는 retry_after 준수
+ * - 일시 오류는 지수 backoff 재시도, max-retries 초과 또는 4xx 거부 시 폐기
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher {
+
+    private static final int MAX_MESSAGE_CHARS = 4096;
+    private static final int MAX_LINES_PER_CHAT = 100;
+    private static final long IDLE_POLL_MILLIS = 1000;
+
+    private final UserPort userPort;
+    private final TelegramClient telegramClient;
+    private final BlockingQueue<Notification> queue;
+    private final long coalesceMillis;
+    private final long perChatIntervalMillis;
+    private final long perBotIntervalMillis;
+    private final int maxRetries;
+    private final long retryBaseMillis;
+
+    // 이하 worker 스레드 전용
+    private final Map<Long, ChatBuffer> buffers = new LinkedHashMap<>();
+    private final Map<Long, Long> chatNextSendAt = new HashMap<>();
+    private final Map<String, Long> botNextSendAt = new HashMap<>();
+
+    private final AtomicInteger pendingLines = new AtomicInteger();
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+
+    private volatile boolean running = true;
+    private Thread worker;
+
+    private record Notification(Long userId, String text) {}
+
+    private static class ChatBuffer {
+        private final Deque<String> lines = new ArrayDeque<>();
+        private long firstQueuedAt;
+        private long nextAttemptAt;
+        private int attempts;
+
+        ChatBuffer(long now) {
+            this.firstQueuedAt = now;
+        }
+
+        long readyAt(long coalesceMillis) {
+            return Math.max(firstQueuedAt + coalesceMillis, nextAttemptAt);
+        }
+    }
+
+    public record Metrics(int queueDepth, int pendingLines, long enqueued, long sent, long coalesced,
+                          long dropped, long failed, long retried) {}
+
+    public NotificationDispatcher(UserPort userPort,
+                                  TelegramClient telegramClient,
+                                  @Value("${telegram.dispatch.queue-capacity:1000}") int queueCapacity,
+                                  @Value("${telegram.dispatch.coalesce-ms:1000}") long coalesceMillis,
+                                  @Value("${telegram.dispatch.per-chat-interval-ms:1000}") long perChatIntervalMillis,
+                                  @Value("${telegram.dispatch.per-bot-per-second:25}") int perBotPerSecond,
+                                  @Value("${telegram.dispatch.max-retries:5}") int maxRetries,
+                                  @Value("${telegram.dispatch.retry-base-ms:1000}") long retryBaseMillis) {
+        this.userPort = userPort;
+        this.telegramClient = telegramClient;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.coalesceMillis = coalesceMillis;
+        this.perChatIntervalMillis = perChatIntervalMillis;
+        this.perBotIntervalMillis = 1000L / Math.max(1, perBotPerSecond);
+        this.maxRetries = maxRetries;
+        this.retryBaseMillis = retryBaseMillis;
+    }
+
+    @PostConstruct
+    void start() {
+        worker = Thread.ofPlatform().name("notification-dispatcher").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int remaining = queue.size() + pendingLines.get();
+        if (remaining > 0) {
+            log.warn("[Notify] Stopped with {} undelivered message(s)", remaining);
+        }
+    }
+
+    /**
+     * 논블로킹 enqueue. 큐가 가득 차면 폐기
+     */
+    public void enqueue(Long userId, String text) {
+        if (userId == null || text == null) return;
+        if (queue.offer(new Notification(userId, text))) {
+            enqueued.increment();
+        } else {
+            dropped.increment();
+            log.warn("[Notify] Queue full ({}), dropped message for userId={} (total dropped {})",
+                    queue.size(), userId, dropped.sum());
+        }
+    }
+
+    public Metrics getMetrics() {
+        return new Metrics(queue.size(), pendingLines.get(), enqueued.sum(), sent.sum(), coalesced.sum(),
+                dropped.sum(), failed.sum(), retried.sum());
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Notification first = queue.poll(nextWakeMillis(System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                long now = System.currentTimeMillis();
+                if (first != null) {
+                    add(first, now);
+                    Notification next;
+                    while ((next = queue.poll()) != null) {
+                        add(next, now);
+                    }
+                }
+                flushReady(now);
+            } catch (InterruptedException e) {
+                if (!running) break;
+            } catch (Exception e) {
+                log.error("[Notify] Dispatcher loop error", e);
+            }
+        }
+    }
+
+    private long nextWakeMillis(long now) {
+        long wakeAt = now + IDLE_POLL_MILLIS;
+        for (ChatBuffer buffer : buffers.values()) {
+            wakeAt = Math.min(wakeAt, buffer.readyAt(coalesceMillis));
+        }
+        return Math.max(1, wakeAt - now);
+    }
+
+    private void add(Notification notification, long now) {
+        ChatBuffer buffer = buffers.computeIfAbsent(notification.userId(), k -> new ChatBuffer(now));
+        if (!buffer.lines.isEmpty()) {
+            coalesced.increment();
+        }
+        if (buffer.lines.size() >= MAX_LINES_PER_CHAT) {
+            // 전송이 계속 밀리는 chat → 오래된 메시지부터 폐기
+            buffer.lines.pollFirst();
+            pendingLines.decrementAndGet();
+            dropped.increment();
+        }
+        buffer.lines.addLast(notification.text());
+        pendingLines.incrementAndGet();
+    }
+
+    private void flushReady(long now) {
+        Iterator<Map.Entry<Long, ChatBuffer>> it = buffers.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, ChatBuffer> entry = it.next();
+            ChatBuffer buffer = entry.getValue();
+            if (now < buffer.readyAt(coalesceMillis)) continue;
+
+            deliver(entry.getKey(), buffer, now);
+            if (buffer.lines.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    private void deliver(Long userId, ChatBuffer buffer, long now) {
+        User user = userPort.findById(userId).orElse(null);
+        if (user == null || Boolean.FALSE.equals(user.getNotificationEnabled()) || !telegramClient.isConfigured(user)) {
+            discard(buffer, false);
+            return;
+        }
+
+        String botKey = telegramClient.rateLimitKey(user);
+        long allowedAt = Math.max(botNextSendAt.getOrDefault(botKey, 0L), chatNextSendAt.getOrDefault(userId, 0L));
+        if (now < allowedAt) {
+            buffer.nextAttemptAt = allowedAt;
+            return;
+        }
+
+        int count = countLinesForMessage(buffer);
+        String message = joinLines(buffer, count);
+        try {
+            telegramClient.sendMessage(user, message);
+            for (int i = 0; i < count; i++) {
+                buffer.lines.pollFirst();
+            }
+            pendingLines.addAndGet(-count);
+            sent.increment();
+            buffer.attempts = 0;
+            buffer.firstQueuedAt = now; // 남은 줄은 새 병합 구간으로 취급 → 병합 대기 후 chat/bot 간격 확인을 다시 거쳐 전송
+            buffer.nextAttemptAt = 0;
+        } catch (NotificationClient.RetryAfterException e) {
+            retried.increment();
+            buffer.nextAttemptAt = now + e.getRetryAfterMillis();
+            botNextSendAt.merge(botKey, buffer.nextAttemptAt, Math::max);
+            log.warn("[Notify] userId={} rate limited, retry in {}ms", userId, e.getRetryAfterMillis());
+        } catch (NotificationClient.RejectedException e) {
+            log.warn("[Notify] userId={} rejected, dropping {} message(s): {}", userId, buffer.lines.size(), e.getMessage());
+            discard(buffer, true);
+        } catch (Exception e) {
+            buffer.attempts++;
+            if (buffer.attempts > maxRetries) {
+                log.warn("[Notify] userId={} failed after {} attempts, dropping {} message(s): {}",
+                        userId, buffer.attempts, buffer.lines.size(), e.getMessage());
+                discard(buffer, true);
+            } else {
+                retried.increment();
+                long backoff = retryBaseMillis << Math.min(buffer.attempts - 1, 6);
+                buffer.nextAttemptAt = now + backoff;
+                log.warn("[Notify] userId={} send failed (attempt {}), retry in {}ms: {}",
+                        userId, buffer.attempts, backoff, e.getMessage());
+            }
+        } finally {
+            long after = System.currentTimeMillis();
+            botNextSendAt.merge(botKey, after + perBotIntervalMillis, Math::max);
+            chatNextSendAt.put(userId, after + perChatIntervalMillis);
+        }
+    }
+
+    /**
+     * 앞에서부터 MAX_MESSAGE_CHARS 이내로 합칠 수 있는 줄 수 (최소 1줄, 초과 줄은 잘라서 전송)
+     */
+    private int countLinesForMessage(ChatBuffer buffer) {
+        int count = 0;
+        int length = 0;
+        for (String line : buffer.lines) {
+            int added = (count == 0 ? 0 : 1) + line.length();
+            if (count > 0 && length + added > MAX_MESSAGE_CHARS) break;
+            length += added;
+            count++;
+        }
+        return count;
+    }
+
+    private String joinLines(ChatBuffer buffer, int count) {
+        StringJoiner joiner = new StringJoiner("\n");
+        Iterator<String> it = buffer.lines.iterator();
+        for (int i = 0; i < count; i++) {
+            joiner.add(it.next());
+        }
+        String message = joiner.toString();
+        return message.length() > MAX_MESSAGE_CHARS ? message.substring(0, MAX_MESSAGE_CHARS) : message;
+    }
+
+    private void discard(ChatBuffer buffer, boolean countFailed) {
+        if (countFailed) {
+            failed.add(buffer.lines.size());
+        }
+        pendingLines.addAndGet(-buffer.lines.size());
+        buffer.lines.clear();
+    }
+}
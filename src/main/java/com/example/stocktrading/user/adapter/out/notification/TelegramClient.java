@@ -1,37 +1,73 @@
 package com.example.stocktrading.user.adapter.out.notification;
 
 import com.example.stocktrading.user.domain.User;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
 
 import java.util.Map;
 
+/**
+ * Telegram Bot API 전송 (동기). 실패는 예외로 전달 → NotificationDispatcher에서 재시도/폐기 판단
+ */
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class TelegramClient implements NotificationClient {
+
     private final RestClient restClient;
+    private final ObjectMapper objectMapper;
+
+    public TelegramClient(@Qualifier("telegramRestClient") RestClient restClient, ObjectMapper objectMapper) {
+        this.restClient = restClient;
+        this.objectMapper = objectMapper;
+    }
 
     @Override
-    public void sendMessage(User user, String text) {
-        if (user.getTelegramBotToken() == null || user.getTelegramBotToken().isBlank()
-                || user.getTelegramChatId() == null || user.getTelegramChatId().isBlank()) {
-            return;
-        }
+    public boolean isConfigured(User user) {
+        return user.getTelegramBotToken() != null && !user.getTelegramBotToken().isBlank()
+                && user.getTelegramChatId() != null && !user.getTelegramChatId().isBlank();
+    }
 
+    @Override
+    public String rateLimitKey(User user) {
+        return user.getTelegramBotToken();
+    }
+
+    @Override
+    public void sendMessage(User user, String text) {
         try {
             restClient.post()
-                    .uri("https://api.telegram.org/bot{token}/sendMessage", user.getTelegramBotToken())
+                    .uri("/bot{token}/sendMessage", user.getTelegramBotToken())
                     .body(Map.of(
                             "chat_id", user.getTelegramChatId(),
                             "text", text))
                     .retrieve()
                     .toBodilessEntity();
             log.info("[Telegram] Notification sent to chatId={}", user.getTelegramChatId());
-        } catch (Exception e) {
-            log.warn("[Telegram] Failed to send notification: {}", e.getMessage());
+        } catch (RestClientResponseException e) {
+            if (e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                throw new NotificationClient.RetryAfterException(retryAfterMillis(e));
+            }
+            if (e.getStatusCode().is4xxClientError()) {
+                // 잘못된 토큰/chat_id 등 → 재시도해도 실패
+                throw new NotificationClient.RejectedException(e.getStatusCode().value() + " " + e.getResponseBodyAsString());
+            }
+            throw e;
+        }
+    }
+
+    // 429 응답 parameters.retry_after (초)
+    private long retryAfterMillis(RestClientResponseException e) {
+        try {
+            JsonNode root = objectMapper.readTree(e.getResponseBodyAsString());
+            return root.path("parameters").path("retry_after").asLong(1) * 1000;
+        } catch (Exception ignore) {
+            return 1000;
         }
     }
 }
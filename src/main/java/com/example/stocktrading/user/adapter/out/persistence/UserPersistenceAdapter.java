@@ -6,9 +6,16 @@ import com.example.stocktrading.user.domain.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 @RequiredArgsConstructor
@@ -17,17 +24,53 @@ public class UserPersistenceAdapter implements UserPort {
 
     private final UserRepository userRepository;
 
+    // userId → 사용자 스냅샷 (brokerInfos 포함). 쓰기 시 version 증가 → 그 전에 시작된 로딩 결과는 캐시에 넣지 않음
+    private final Map<Long, User> userCache = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
     @Override
     @Transactional
     public User save(User user) {
         UserEntity entity = mapToEntity(user);
         UserEntity saved = userRepository.save(entity);
+        evict(saved.getId());
         return mapToDomain(saved);
     }
 
     @Override
     public Optional<User> findById(Long id) {
-        return userRepository.findById(id).map(this::mapToDomain);
+        User cached = userCache.get(id);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+
+        long loadedVersion = version.get();
+        Optional<User> loaded = userRepository.findById(id).map(this::mapToDomain);
+        loaded.ifPresent(user -> cacheIfCurrent(user, loadedVersion));
+        return loaded.map(this::copyOf);
+    }
+
+    @Override
+    public List<User> findAllByIds(Collection<Long> ids) {
+        List<User> result = new ArrayList<>(ids.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            User cached = userCache.get(id);
+            if (cached != null) {
+                result.add(copyOf(cached));
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) return result;
+
+        long loadedVersion = version.get();
+        for (UserEntity entity : userRepository.findAllWithBrokerInfosByIdIn(missing)) {
+            User user = mapToDomain(entity);
+            cacheIfCurrent(user, loadedVersion);
+            result.add(copyOf(user));
+        }
+        return result;
     }
 
     @Override
@@ -51,6 +94,35 @@ public class UserPersistenceAdapter implements UserPort {
     @Transactional
     public void deleteById(Long id) {
         userRepository.deleteById(id);
+        evict(id);
+    }
+
+    @Override
+    public void evict(Long id) {
+        version.incrementAndGet();
+        userCache.remove(id);
+        // 커밋 전 다른 스레드가 이전 값을 다시 캐싱할 수 있으므로 커밋 후 한 번 더 제거
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                    userCache.remove(id);
+                }
+            });
+        }
+    }
+
+    private void cacheIfCurrent(User user, long loadedVersion) {
+        userCache.put(user.getUserId(), user);
+        if (version.get() != loadedVersion) {
+            userCache.remove(user.getUserId(), user);
+        }
+    }
+
+    // 호출측 setter 변경이 캐시에 반영되지 않도록 얕은 복사본 반환 (brokerInfos는 불변 리스트)
+    private User copyOf(User user) {
+        return user.toBuilder().build();
     }
 
     public User mapToDomain(UserEntity entity) {
@@ -1,7 +1,11 @@
 package com.example.stocktrading.user.adapter.out.persistence;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
@@ -9,4 +13,8 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
     Optional<UserEntity> findByUsername(String username);
 
     boolean existsByUsername(String username);
+
+    // brokerInfos까지 한 번에 로딩 (N+1 방지)
+    @Query("SELECT DISTINCT u FROM UserEntity u LEFT JOIN FETCH u.brokerInfos WHERE u.id IN :ids")
+    List<UserEntity> findAllWithBrokerInfosByIdIn(@Param("ids") Collection<Long> ids);
 }
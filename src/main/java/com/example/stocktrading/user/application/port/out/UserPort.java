@@ -2,6 +2,7 @@ package com.example.stocktrading.user.application.port.out;
 
 import com.example.stocktrading.user.domain.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +12,8 @@ public interface UserPort {
 
     Optional<User> findById(Long id);
 
+    List<User> findAllByIds(Collection<Long> ids);
+
     Optional<User> findByUsername(String username);
 
     List<User> findAll();
@@ -18,4 +21,7 @@ public interface UserPort {
     boolean existsByUsername(String username);
 
     void deleteById(Long id);
+
+    /** 캐시된 사용자 스냅샷 무효화 (brokerInfo 변경 등 users 외 테이블 변경 시) */
+    void evict(Long id);
 }
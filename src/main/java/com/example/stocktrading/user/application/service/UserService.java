@@ -7,10 +7,12 @@ import com.example.stocktrading.user.application.port.out.BrokerInfoPort;
 import com.example.stocktrading.user.application.port.out.PasswordEncoderPort;
 import com.example.stocktrading.user.application.port.out.UserPort;
 import com.example.stocktrading.user.domain.BrokerInfo;
+import com.example.stocktrading.user.domain.BrokerInfoChangedEvent;
 import com.example.stocktrading.user.domain.BrokerType;
 import com.example.stocktrading.user.domain.User;
 import com.example.stocktrading.user.domain.User.UserRole;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalTime;
@@ -24,6 +26,7 @@ public class UserService implements UserUseCase {
     private final BrokerInfoPort brokerInfoPort;
     private final PasswordEncoderPort passwordEncoder;
     private final JwtService jwtService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public void register(String username, String password) {
@@ -89,6 +92,7 @@ public class UserService implements UserUseCase {
     @Override
     public void deleteUser(Long userId) {
         userPort.deleteById(userId);
+        eventPublisher.publishEvent(new BrokerInfoChangedEvent(userId));
     }
 
     @Override
@@ -105,6 +109,7 @@ public class UserService implements UserUseCase {
 
         user.setActiveBrokerId(brokerInfoId);
         userPort.save(user);
+        eventPublisher.publishEvent(new BrokerInfoChangedEvent(userId));
     }
 
     @Override
@@ -121,11 +126,13 @@ public class UserService implements UserUseCase {
                 accountNumber
         );
         BrokerInfo saved = brokerInfoPort.save(brokerInfo);
+        userPort.evict(userId);
 
         if (user.getActiveBrokerId() == null) {
             user.setActiveBrokerId(saved.getId());
             userPort.save(user);
         }
+        eventPublisher.publishEvent(new BrokerInfoChangedEvent(userId));
     }
 
     @Override
@@ -146,6 +153,8 @@ public class UserService implements UserUseCase {
         }
 
         brokerInfoPort.deleteById(brokerInfoId);
+        userPort.evict(userId);
+        eventPublisher.publishEvent(new BrokerInfoChangedEvent(userId));
     }
 
     @Override
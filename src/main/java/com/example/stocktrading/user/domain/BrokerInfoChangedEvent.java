@@ -0,0 +1,7 @@
+package com.example.stocktrading.user.domain;
+
+/**
+ * 사용자의 브로커 정보(활성 브로커 포함) 변경 이벤트
+ */
+public record BrokerInfoChangedEvent(Long userId) {
+}
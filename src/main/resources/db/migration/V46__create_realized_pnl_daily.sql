@@ -0,0 +1,12 @@
+-- 실현손익 집계 (user, ticker, 일자). SELL 체결 시 갱신, 통계 조회는 trade_logs 전체 대신 이 테이블 합산
+CREATE TABLE realized_pnl_daily (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    ticker VARCHAR(20) NOT NULL,
+    trade_date DATE NOT NULL,
+    realized_profit DECIMAL(19, 4) NOT NULL DEFAULT 0,
+    sell_count INT NOT NULL DEFAULT 0,
+    closed_buy_count INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_realized_pnl_user_ticker_date UNIQUE (user_id, ticker, trade_date)
+);
@@ -0,0 +1,3 @@
+-- 사용자별 (timestamp, id) keyset 페이지/export용 인덱스 (ticker 필터 포함)
+CREATE INDEX idx_trade_logs_user_ts_id ON trade_logs(user_id, timestamp, id);
+CREATE INDEX idx_trade_logs_user_ticker_ts_id ON trade_logs(user_id, ticker, timestamp, id);
@@ -0,0 +1,4 @@
+-- 필터별 keyset 인덱스: action / status 단독 필터도 (timestamp, id) 순서로 범위 조회
+-- (ticker 포함 조합은 V47 (user_id, ticker, timestamp, id), 필터 없음은 (user_id, timestamp, id) 사용)
+CREATE INDEX idx_trade_logs_user_action_ts_id ON trade_logs(user_id, action, timestamp, id);
+CREATE INDEX idx_trade_logs_user_status_ts_id ON trade_logs(user_id, status, timestamp, id);
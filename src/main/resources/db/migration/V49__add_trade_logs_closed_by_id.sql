@@ -0,0 +1,14 @@
+-- CLOSED BUY를 청산한 SELL id (실현손익 backfill이 증분 집계와 같은 BUY-SELL 대응을 쓰도록). 고아 청산은 NULL
+ALTER TABLE trade_logs ADD COLUMN closed_by_id BIGINT;
+
+-- 기존 이력: 같은 user/ticker에서 BUY 이후 첫 FILLED SELL로 간주 (이전 backfill 규칙과 동일)
+UPDATE trade_logs b
+SET closed_by_id = (
+    SELECT MIN(s.id) FROM trade_logs s
+    WHERE s.user_id = b.user_id
+      AND s.ticker = b.ticker
+      AND s.action = 'SELL'
+      AND s.status = 'FILLED'
+      AND s.id > b.id
+)
+WHERE b.action = 'BUY' AND b.status = 'CLOSED';
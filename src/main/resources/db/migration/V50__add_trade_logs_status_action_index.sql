@@ -0,0 +1,2 @@
+-- 시작 시 포지션 복원: PENDING 주문 / FILLED BUY만 범위 조회 (누적되는 FILLED SELL은 읽지 않음)
+CREATE INDEX idx_trade_logs_status_action ON trade_logs(status, action);
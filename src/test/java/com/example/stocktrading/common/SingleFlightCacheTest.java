@@ -0,0 +1,138 @@
+package com.example.stocktrading.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 동시 miss 1회 로딩, TTL 만료, cacheable/예외 미저장, refresh-ahead 중 기존 값 제공 확인
+ */
+class SingleFlightCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(TTL, v -> true);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get("k", () -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    await(release);
+                    return "v";
+                })));
+            }
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(50); // 나머지 호출자가 진행중 future에 붙을 시간
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("v");
+            }
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void reloadsAfterTtl() throws InterruptedException {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(Duration.ofMillis(50), v -> true);
+
+        assertThat(cache.get("k", () -> load("v1"))).isEqualTo("v1");
+        assertThat(cache.get("k", () -> load("v2"))).isEqualTo("v1");
+
+        Thread.sleep(80);
+
+        assertThat(cache.get("k", () -> load("v3"))).isEqualTo("v3");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void doesNotStoreNonCacheableValues() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(TTL, v -> !v.isEmpty());
+
+        assertThat(cache.get("k", () -> load(""))).isEmpty();
+        assertThat(cache.get("k", () -> load("v"))).isEqualTo("v");
+        assertThat(cache.get("k", () -> load("other"))).isEqualTo("v");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void doesNotStoreFailures() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(TTL, v -> true);
+
+        assertThatThrownBy(() -> cache.get("k", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get("k", () -> load("v"))).isEqualTo("v");
+    }
+
+    @Test
+    void keysAreIndependentAndEvictForcesReload() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(TTL, v -> true);
+
+        assertThat(cache.get("a", () -> load("a1"))).isEqualTo("a1");
+        assertThat(cache.get("b", () -> load("b1"))).isEqualTo("b1");
+        cache.evict("a");
+
+        assertThat(cache.get("a", () -> load("a2"))).isEqualTo("a2");
+        assertThat(cache.get("b", () -> load("b2"))).isEqualTo("b1");
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void refreshServesCurrentValueWhileReloading() throws Exception {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(TTL, v -> true);
+        cache.get("k", () -> load("v1"));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> refreshed = executor.submit(() -> cache.refresh("k", () -> {
+                loading.countDown();
+                await(release);
+                return load("v2");
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // 기존 값이 유효하면 refresh 진행중에도 대기 없이 기존 값
+            assertThat(cache.get("k", () -> load("unexpected"))).isEqualTo("v1");
+
+            release.countDown();
+            assertThat(refreshed.get(5, TimeUnit.SECONDS)).isEqualTo("v2");
+        }
+        assertThat(cache.get("k", () -> load("unexpected"))).isEqualTo("v2");
+        assertThat(loads).hasValue(2);
+    }
+
+    private String load(String value) {
+        loads.incrementAndGet();
+        return value;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.stocktrading.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 key → 항상 같은 lock, 여러 key는 stripe 개수 안에서 분산 확인
+ */
+class StripedLockTest {
+
+    @Test
+    void sameKeyAlwaysMapsToSameLock() {
+        StripedLock locks = new StripedLock(16);
+
+        assertThat(locks.get("1-AAPL")).isSameAs(locks.get(new String("1-AAPL")));
+        assertThat(locks.get(-7L)).isSameAs(locks.get(-7L));
+    }
+
+    @Test
+    void spreadsKeysAcrossStripes() {
+        StripedLock locks = new StripedLock(8);
+        Map<ReentrantLock, Boolean> used = new IdentityHashMap<>();
+
+        for (int i = 0; i < 1_000; i++) {
+            used.put(locks.get(i + "-TICKER"), true);
+        }
+
+        assertThat(used).hasSize(8);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.stocktrading.trading.adapter.out.broker;
+
+import com.example.stocktrading.trading.domain.CandleSeries;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 장중 시간 기준 누락 봉 계산 → 새 봉 없으면 조회 생략, 있으면 소량 조회 후 병합
+ */
+class CandleStoreTest {
+
+    private static final ZoneId NY = ZoneId.of("America/New_York");
+    private static final int NMIN = 1;
+    private static final int LIMIT = 100;
+
+    private final CandleStore store = new CandleStore("09:30", "16:00");
+    private final List<Integer> requests = new ArrayList<>();
+
+    @Test
+    void skipsFetchOverWeekendAfterFinalBar() {
+        // 금요일 장 마감 후 조회 → 마지막 봉(15:59) 확정
+        long fridayClose = ny(2026, 10, 16, 16, 5);
+        store.getCandles("AAPL", NMIN, LIMIT, fetcherEndingAt(ny(2026, 10, 16, 15, 59)), fridayClose);
+
+        CandleSeries result = store.getCandles("AAPL", NMIN, LIMIT,
+                fetcherEndingAt(ny(2026, 10, 16, 15, 59)), ny(2026, 10, 17, 11, 0));
+
+        assertThat(requests).containsExactly(LIMIT);
+        assertThat(result.size()).isEqualTo(LIMIT);
+        assertThat(result.lastTimestamp()).isEqualTo(ny(2026, 10, 16, 15, 59));
+    }
+
+    @Test
+    void fetchesOnlyNewTradingBarsAfterWeekend() {
+        store.getCandles("AAPL", NMIN, LIMIT, fetcherEndingAt(ny(2026, 10, 16, 15, 59)), ny(2026, 10, 16, 16, 5));
+
+        // 월요일 09:35 → 주말/장외 시간은 제외, 09:30~09:35 새 봉 5개 + revision 1개 + 겹침 1개
+        CandleSeries result = store.getCandles("AAPL", NMIN, LIMIT,
+                fetcherEndingAt(ny(2026, 10, 19, 9, 34)), ny(2026, 10, 19, 9, 35));
+
+        assertThat(requests).containsExactly(LIMIT, 7);
+        assertThat(result.size()).isEqualTo(LIMIT);
+        assertThat(result.lastTimestamp()).isEqualTo(ny(2026, 10, 19, 9, 34));
+    }
+
+    @Test
+    void refetchesInProgressBarWithinSession() {
+        // 10:00 봉 진행중(10:00:10)에 조회
+        store.getCandles("AAPL", NMIN, LIMIT, fetcherEndingAt(ny(2026, 10, 19, 10, 0)), ny(2026, 10, 19, 10, 0) + 10_000);
+
+        store.getCandles("AAPL", NMIN, LIMIT, fetcherEndingAt(ny(2026, 10, 19, 10, 0)), ny(2026, 10, 19, 10, 0) + 30_000);
+
+        assertThat(requests).containsExactly(LIMIT, 2);
+    }
+
+    @Test
+    void reloadsWhenFetchedBarsDoNotOverlap() {
+        store.getCandles("AAPL", NMIN, LIMIT, fetcherEndingAt(ny(2026, 10, 19, 10, 0)), ny(2026, 10, 19, 10, 1));
+
+        // 10:05 기준 새 봉 4개 + revision 1개 + 겹침 1개 요청했는데 겹치는 봉이 없으면 전체 재조회
+        IntFunction<CandleSeries> gapped = n -> {
+            requests.add(n);
+            return bars(ny(2026, 10, 19, 10, 30), n);
+        };
+        store.getCandles("AAPL", NMIN, LIMIT, gapped, ny(2026, 10, 19, 10, 5));
+
+        assertThat(requests).containsExactly(LIMIT, 6, LIMIT);
+    }
+
+    @Test
+    void countsOnlyRegularSessionTime() {
+        long friday1500 = ny(2026, 10, 16, 15, 0);
+        long monday1000 = ny(2026, 10, 19, 10, 0);
+
+        assertThat(store.tradingMillisBetween(friday1500, monday1000, Long.MAX_VALUE))
+                .isEqualTo(90 * 60_000L);
+        assertThat(store.tradingMillisBetween(ny(2026, 10, 17, 9, 0), ny(2026, 10, 18, 20, 0), Long.MAX_VALUE))
+                .isZero();
+    }
+
+    private IntFunction<CandleSeries> fetcherEndingAt(long lastTs) {
+        return n -> {
+            requests.add(n);
+            return bars(lastTs, n);
+        };
+    }
+
+    /**
+     * KIS처럼 장중 분봉만 연속으로 반환 (장외/주말 시간은 건너뜀)
+     */
+    private static CandleSeries bars(long lastTs, int n) {
+        long[] timestamps = new long[n];
+        LocalDateTime t = Instant.ofEpochMilli(lastTs).atZone(NY).toLocalDateTime();
+        for (int i = n - 1; i >= 0; t = t.minusMinutes(NMIN)) {
+            if (isSessionMinute(t)) {
+                timestamps[i--] = t.atZone(NY).toInstant().toEpochMilli();
+            }
+        }
+        CandleSeries series = new CandleSeries(n);
+        for (long ts : timestamps) {
+            series.append(ts, 1, 1, 1, 1, 1);
+        }
+        return series;
+    }
+
+    private static boolean isSessionMinute(LocalDateTime t) {
+        DayOfWeek day = t.getDayOfWeek();
+        LocalTime time = t.toLocalTime();
+        return day != DayOfWeek.SATURDAY && day != DayOfWeek.SUNDAY
+                && !time.isBefore(LocalTime.of(9, 30)) && time.isBefore(LocalTime.of(16, 0));
+    }
+
+    private static long ny(int year, int month, int day, int hour, int minute) {
+        return LocalDateTime.of(year, month, day, hour, minute).atZone(NY).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.stocktrading.trading.adapter.out.broker;
+
+import com.example.stocktrading.trading.application.port.out.ExchangeCodePort;
+import com.example.stocktrading.trading.domain.BrokerContext;
+import com.example.stocktrading.trading.domain.PriceTick;
+import com.example.stocktrading.user.domain.BrokerType;
+import com.example.stocktrading.user.domain.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 로컬 WebSocket stand-in 대상 접속 → approval key → 구독/해제 → 체결 frame → PINGPONG → 끊김 후 재접속 확인
+ */
+class KisQuoteFeedTest {
+
+    private static final long TIMEOUT_MS = 5_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger approvalRequests = new AtomicInteger();
+    private final User user = User.builder().userId(1L).username("tester").build();
+
+    private WebSocketStandIn standIn;
+    private HttpServer approvalServer;
+    private KisQuoteFeed feed;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        standIn = new WebSocketStandIn();
+
+        approvalServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        approvalServer.createContext("/oauth2/Approval", exchange -> {
+            approvalRequests.incrementAndGet();
+            byte[] body = "{\"approval_key\":\"test-approval\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        approvalServer.start();
+
+        RoutingBrokerAdapter brokerAdapter = mock(RoutingBrokerAdapter.class);
+        when(brokerAdapter.resolveContext(any())).thenReturn(Optional.of(BrokerContext.builder()
+                .appKey("app-key")
+                .appSecret("app-secret")
+                .brokerType(BrokerType.KIS)
+                .build()));
+        RestClient restClient = RestClient.builder()
+                .baseUrl("http://localhost:" + approvalServer.getAddress().getPort())
+                .build();
+
+        feed = new KisQuoteFeed(brokerAdapter, restClient, objectMapper, mock(ExchangeCodePort.class),
+                true, standIn.url(), 50, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        feed.shutdown();
+        standIn.close();
+        approvalServer.stop(0);
+    }
+
+    @Test
+    void subscribesWithApprovalKeyAndUnsubscribesRemovedTickers() throws Exception {
+        feed.subscribe(user, Set.of("AAPL", "MSFT"));
+        WebSocketStandIn.Session session = standIn.awaitSession(TIMEOUT_MS);
+
+        JsonNode first = objectMapper.readTree(session.awaitText(TIMEOUT_MS));
+        JsonNode second = objectMapper.readTree(session.awaitText(TIMEOUT_MS));
+        assertThat(first.path("header").path("approval_key").asText()).isEqualTo("test-approval");
+        assertThat(first.path("header").path("tr_type").asText()).isEqualTo("1");
+        assertThat(List.of(trKey(first), trKey(second))).containsExactly("DNASAAPL", "DNASMSFT");
+
+        feed.subscribe(user, Set.of("AAPL"));
+        JsonNode removed = objectMapper.readTree(session.awaitText(TIMEOUT_MS));
+        assertThat(removed.path("header").path("tr_type").asText()).isEqualTo("2");
+        assertThat(trKey(removed)).isEqualTo("DNASMSFT");
+        assertThat(session.drainTexts(200)).isEmpty();
+    }
+
+    @Test
+    void capsSubscriptionsPerSession() throws Exception {
+        Set<String> tickers = IntStream.range(0, 45)
+                .mapToObj(i -> String.format("T%02d", i))
+                .collect(Collectors.toSet());
+
+        feed.subscribe(user, tickers);
+        WebSocketStandIn.Session session = standIn.awaitSession(TIMEOUT_MS);
+
+        List<String> messages = new ArrayList<>();
+        messages.add(session.awaitText(TIMEOUT_MS));
+        messages.addAll(session.drainTexts(300));
+        assertThat(messages).hasSize(41);
+    }
+
+    @Test
+    void publishesTicksFromDataFrames() throws Exception {
+        BlockingQueue<PriceTick> ticks = new LinkedBlockingQueue<>();
+        feed.addListener(ticks::add);
+        feed.subscribe(user, Set.of("AAPL"));
+        WebSocketStandIn.Session session = standIn.awaitSession(TIMEOUT_MS);
+        session.awaitText(TIMEOUT_MS);
+
+        session.sendText(dataFrame("AAPL", "187.25", "30"));
+
+        PriceTick tick = ticks.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        assertThat(tick).isNotNull();
+        assertThat(tick.ticker()).isEqualTo("AAPL");
+        assertThat(tick.price()).isEqualTo(187.25);
+        assertThat(tick.volume()).isEqualTo(30);
+        assertThat(feed.getLastQuote("AAPL")).hasValueSatisfying(quote -> assertThat(quote.price()).isEqualTo(187.25));
+    }
+
+    @Test
+    void echoesPingPong() throws Exception {
+        feed.subscribe(user, Set.of("AAPL"));
+        WebSocketStandIn.Session session = standIn.awaitSession(TIMEOUT_MS);
+        session.awaitText(TIMEOUT_MS);
+
+        String ping = "{\"header\":{\"tr_id\":\"PINGPONG\",\"datetime\":\"20261017093000\"}}";
+        session.sendText(ping);
+
+        assertThat(session.awaitText(TIMEOUT_MS)).isEqualTo(ping);
+    }
+
+    @Test
+    void reconnectsAndResubscribesAfterServerClose() throws Exception {
+        feed.subscribe(user, Set.of("AAPL", "MSFT"));
+        WebSocketStandIn.Session first = standIn.awaitSession(TIMEOUT_MS);
+        first.awaitText(TIMEOUT_MS);
+        first.awaitText(TIMEOUT_MS);
+
+        first.closeFromServer(1001);
+
+        WebSocketStandIn.Session second = standIn.awaitSession(TIMEOUT_MS);
+        List<String> keys = new ArrayList<>();
+        keys.add(trKey(objectMapper.readTree(second.awaitText(TIMEOUT_MS))));
+        keys.add(trKey(objectMapper.readTree(second.awaitText(TIMEOUT_MS))));
+        assertThat(keys).containsExactly("DNASAAPL", "DNASMSFT");
+        assertThat(approvalRequests.get()).isEqualTo(1);
+        assertThat(standIn.sessionCount()).isEqualTo(2);
+    }
+
+    private String trKey(JsonNode message) {
+        return message.path("body").path("input").path("tr_key").asText();
+    }
+
+    /**
+     * HDFSCNT0 체결 1건 (26 필드, SYMB=1 KYMD=6 KHMS=7 LAST=11 EVOL=19)
+     */
+    private String dataFrame(String ticker, String price, String volume) {
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("Asia/Seoul"));
+        String[] fields = new String[26];
+        Arrays.fill(fields, "0");
+        fields[1] = ticker;
+        fields[6] = now.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+        fields[7] = now.format(DateTimeFormatter.ofPattern("HHmmss"));
+        fields[11] = price;
+        fields[19] = volume;
+        return "0|HDFSCNT0|001|" + String.join("^", fields);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.stocktrading.trading.adapter.out.broker;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * burst 소진 → 거절/대기, 앱키별 버킷 분리, 시간 경과 후 재충전 확인
+ */
+class KisRateLimiterTest {
+
+    @Test
+    void rejectsBeyondBurstWhenNoWaitAllowed() {
+        KisRateLimiter limiter = new KisRateLimiter(10, 2, 0);
+
+        limiter.acquire("key");
+        limiter.acquire("key");
+
+        assertThatThrownBy(() -> limiter.acquire("key"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("too many requests");
+        KisRateLimiter.Metrics metrics = limiter.getMetrics();
+        assertThat(metrics.acquired()).isEqualTo(2);
+        assertThat(metrics.rejected()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsSeparateBucketPerAppKey() {
+        KisRateLimiter limiter = new KisRateLimiter(10, 1, 0);
+
+        limiter.acquire("a");
+        limiter.acquire("b");
+
+        assertThatThrownBy(() -> limiter.acquire("a")).isInstanceOf(RuntimeException.class);
+        assertThat(limiter.getMetrics().acquired()).isEqualTo(2);
+    }
+
+    @Test
+    void reservesNextSlotAfterBurst() {
+        KisRateLimiter limiter = new KisRateLimiter(10, 2, 1_000);
+        long now = 1_000_000_000L;
+
+        assertThat(limiter.reserve("key", now)).isZero();
+        assertThat(limiter.reserve("key", now)).isZero();
+        // 10/s → burst 이후 100ms 간격으로 예약
+        assertThat(limiter.reserve("key", now)).isEqualTo(100_000_000L);
+        assertThat(limiter.reserve("key", now)).isEqualTo(200_000_000L);
+        // 50ms 경과 시 그만큼 대기 감소
+        assertThat(limiter.reserve("key", now + 50_000_000L)).isEqualTo(250_000_000L);
+    }
+
+    @Test
+    void rejectsReservationBeyondMaxWaitWithoutConsumingSlot() {
+        KisRateLimiter limiter = new KisRateLimiter(10, 1, 150);
+        long now = 1_000_000_000L;
+
+        assertThat(limiter.reserve("key", now)).isZero();
+        assertThat(limiter.reserve("key", now)).isEqualTo(100_000_000L);
+        assertThat(limiter.reserve("key", now)).isEqualTo(-1);
+        // 거절된 요청은 슬롯을 차지하지 않음
+        assertThat(limiter.reserve("key", now + 100_000_000L)).isEqualTo(100_000_000L);
+    }
+
+    @Test
+    void waitsForNextSlotWithinMaxWait() {
+        KisRateLimiter limiter = new KisRateLimiter(10, 2, 1_000);
+        limiter.acquire("key");
+        limiter.acquire("key");
+
+        limiter.acquire("key");
+
+        // 대기 시간은 예약 시점 기준 계산값 (최대 1 interval), 실제 sleep 시간은 검증하지 않음
+        KisRateLimiter.Metrics metrics = limiter.getMetrics();
+        assertThat(metrics.acquired()).isEqualTo(3);
+        assertThat(metrics.rejected()).isZero();
+        assertThat(metrics.maxWaitMillis()).isBetween(0L, 100L);
+    }
+
+    @Test
+    void refillsAfterInterval() throws InterruptedException {
+        KisRateLimiter limiter = new KisRateLimiter(10, 1, 0);
+        limiter.acquire("key");
+        assertThatThrownBy(() -> limiter.acquire("key")).isInstanceOf(RuntimeException.class);
+
+        Thread.sleep(120);
+
+        limiter.acquire("key");
+        assertThat(limiter.getMetrics().acquired()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsNonPositiveConfiguration() {
+        assertThatThrownBy(() -> new KisRateLimiter(0, 1, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new KisRateLimiter(10, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.stocktrading.trading.adapter.out.broker;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 테스트용 최소 WebSocket 서버 (RFC 6455 handshake + text/close/ping frame).
+ * 접속마다 수신 text frame을 큐에 쌓고, 서버 쪽 text 전송/close로 재접속 경로를 재현
+ */
+class WebSocketStandIn implements AutoCloseable {
+
+    private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private final ServerSocket serverSocket;
+    private final List<Session> sessions = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<Session> opened = new LinkedBlockingQueue<>();
+
+    WebSocketStandIn() throws IOException {
+        serverSocket = new ServerSocket(0);
+        Thread.ofVirtual().name("ws-stand-in-accept").start(this::acceptLoop);
+    }
+
+    String url() {
+        return "ws://localhost:" + serverSocket.getLocalPort();
+    }
+
+    /**
+     * 다음 접속 대기 (재접속 포함)
+     */
+    Session awaitSession(long timeoutMs) throws InterruptedException {
+        Session session = opened.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        if (session == null) throw new AssertionError("No WebSocket connection within " + timeoutMs + "ms");
+        return session;
+    }
+
+    int sessionCount() {
+        return sessions.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Session session : sessions) {
+            session.closeSocket();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread.ofVirtual().name("ws-stand-in-session").start(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try {
+            Session session = new Session(socket);
+            session.handshake();
+            sessions.add(session);
+            opened.add(session);
+            session.readLoop();
+        } catch (IOException e) {
+            // 클라이언트/서버 종료
+        }
+    }
+
+    static class Session {
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+        private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+
+        Session(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = socket.getOutputStream();
+        }
+
+        /**
+         * 클라이언트가 보낸 다음 text frame
+         */
+        String awaitText(long timeoutMs) throws InterruptedException {
+            String text = received.poll(timeoutMs, TimeUnit.MILLISECONDS);
+            if (text == null) throw new AssertionError("No text frame within " + timeoutMs + "ms");
+            return text;
+        }
+
+        /**
+         * 일정 시간 내 수신된 text frame 전부 (더 안 올 때까지)
+         */
+        List<String> drainTexts(long quietMs) throws InterruptedException {
+            List<String> texts = new java.util.ArrayList<>();
+            String text;
+            while ((text = received.poll(quietMs, TimeUnit.MILLISECONDS)) != null) {
+                texts.add(text);
+            }
+            return texts;
+        }
+
+        synchronized void sendText(String text) throws IOException {
+            writeFrame(0x1, text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * 서버 측 close frame 전송 후 소켓 종료 (KIS 세션 끊김 재현)
+         */
+        synchronized void closeFromServer(int statusCode) throws IOException {
+            writeFrame(0x8, new byte[]{(byte) (statusCode >> 8), (byte) statusCode});
+            closeSocket();
+        }
+
+        void closeSocket() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        private void handshake() throws IOException {
+            String key = null;
+            String line;
+            while (!(line = readLine()).isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+                    key = line.substring(colon + 1).trim();
+                }
+            }
+            if (key == null) throw new IOException("Not a WebSocket upgrade");
+            String response = "HTTP/1.1 101 Switching Protocols\r\n"
+                    + "Upgrade: websocket\r\n"
+                    + "Connection: Upgrade\r\n"
+                    + "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n";
+            out.write(response.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        private void readLoop() throws IOException {
+            ByteArrayOutputStream message = new ByteArrayOutputStream();
+            while (true) {
+                int b0 = in.read();
+                if (b0 < 0) return;
+                int b1 = readByte();
+                boolean fin = (b0 & 0x80) != 0;
+                int opcode = b0 & 0x0F;
+                long length = b1 & 0x7F;
+                if (length == 126) {
+                    length = (readByte() << 8) | readByte();
+                } else if (length == 127) {
+                    length = 0;
+                    for (int i = 0; i < 8; i++) length = (length << 8) | readByte();
+                }
+                byte[] mask = (b1 & 0x80) != 0 ? in.readNBytes(4) : null;
+                byte[] payload = in.readNBytes((int) length);
+                if (mask != null) {
+                    for (int i = 0; i < payload.length; i++) payload[i] ^= mask[i % 4];
+                }
+
+                switch (opcode) {
+                    case 0x0, 0x1 -> {
+                        message.write(payload);
+                        if (fin) {
+                            received.add(message.toString(StandardCharsets.UTF_8));
+                            message.reset();
+                        }
+                    }
+                    case 0x8 -> {
+                        synchronized (this) {
+                            writeFrame(0x8, payload);
+                        }
+                        closeSocket();
+                        return;
+                    }
+                    case 0x9 -> {
+                        synchronized (this) {
+                            writeFrame(0xA, payload);
+                        }
+                    }
+                    default -> {
+                        // pong 등 무시
+                    }
+                }
+            }
+        }
+
+        private void writeFrame(int opcode, byte[] payload) throws IOException {
+            out.write(0x80 | opcode);
+            if (payload.length < 126) {
+                out.write(payload.length);
+            } else if (payload.length <= 0xFFFF) {
+                out.write(126);
+                out.write(payload.length >> 8);
+                out.write(payload.length);
+            } else {
+                out.write(127);
+                for (int i = 7; i >= 0; i--) out.write((int) ((long) payload.length >> (8 * i)));
+            }
+            out.write(payload);
+            out.flush();
+        }
+
+        private int readByte() throws IOException {
+            int b = in.read();
+            if (b < 0) throw new EOFException();
+            return b;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int b;
+            while ((b = in.read()) >= 0) {
+                if (b == '\n') break;
+                if (b != '\r') line.append((char) b);
+            }
+            if (b < 0 && line.isEmpty()) throw new EOFException();
+            return line.toString();
+        }
+
+        private static String acceptKey(String key) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-1")
+                        .digest((key + ACCEPT_GUID).getBytes(StandardCharsets.US_ASCII));
+                return Base64.getEncoder().encodeToString(digest);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
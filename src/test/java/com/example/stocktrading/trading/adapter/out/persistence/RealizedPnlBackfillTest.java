@@ -0,0 +1,105 @@
+package com.example.stocktrading.trading.adapter.out.persistence;
+
+import com.example.stocktrading.trading.application.service.TradeLogService;
+import com.example.stocktrading.trading.domain.StockOrder;
+import com.example.stocktrading.trading.domain.TradeLog;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 증분 집계(SELL 체결 시 청산)와 trade_logs replay backfill 결과가 같은지 확인 (부분 매도 / 고아 청산 이력)
+ */
+@DataJpaTest
+@Import(TradeLogPersistenceAdapter.class)
+class RealizedPnlBackfillTest {
+
+    private static final Long USER_ID = 1L;
+    private static final ZonedDateTime T0 = ZonedDateTime.of(2026, 10, 16, 23, 0, 0, 0, ZoneId.of("Asia/Seoul"));
+
+    @Autowired
+    private TradeLogPersistenceAdapter adapter;
+
+    @Autowired
+    private RealizedPnlRepository realizedPnlRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void backfillMatchesIncrementalForPartialSell() {
+        Long buy1 = filled("AAPL", StockOrder.OrderType.BUY, "100", 0);
+        filled("AAPL", StockOrder.OrderType.BUY, "110", 1);
+        filled("AAPL", StockOrder.OrderType.BUY, "120", 2);
+
+        // 3주 중 2주만 체결된 SELL → 오래된 BUY 2개만 청산 (260 - 210 = 50)
+        Long partialSell = filled("AAPL", StockOrder.OrderType.SELL, "130", 3);
+        adapter.closeOldestFilledBuysBefore(USER_ID, "AAPL", partialSell, 2);
+        // 남은 BUY는 다음 SELL이 청산 (125 - 120 = 5)
+        Long sell = filled("AAPL", StockOrder.OrderType.SELL, "125", 4);
+        adapter.closeFilledBuysBefore(USER_ID, "AAPL", sell);
+
+        List<String> incremental = snapshot();
+        assertThat(incremental).containsExactly("AAPL|55|2|3");
+        assertThat(entityManager.find(TradeLogEntity.class, buy1).getClosedById()).isEqualTo(partialSell);
+
+        backfill();
+
+        assertThat(snapshot()).isEqualTo(incremental);
+    }
+
+    @Test
+    void backfillMatchesIncrementalForOrphanClose() {
+        // 브로커에 보유량이 없어 정리된 BUY → 실현손익 없음
+        filled("MSFT", StockOrder.OrderType.BUY, "50", 0);
+        adapter.closeAllFilledBuys(USER_ID, "MSFT");
+
+        filled("MSFT", StockOrder.OrderType.BUY, "60", 1);
+        Long sell = filled("MSFT", StockOrder.OrderType.SELL, "70", 2);
+        adapter.closeFilledBuysBefore(USER_ID, "MSFT", sell);
+
+        List<String> incremental = snapshot();
+        assertThat(incremental).containsExactly("MSFT|10|1|1");
+
+        backfill();
+
+        assertThat(snapshot()).isEqualTo(incremental);
+    }
+
+    private Long filled(String ticker, StockOrder.OrderType action, String price, int minutes) {
+        return adapter.save(TradeLog.builder()
+                .userId(USER_ID)
+                .ticker(ticker)
+                .action(action)
+                .price(new BigDecimal(price))
+                .timestamp(T0.plusMinutes(minutes))
+                .status(TradeLog.OrderStatus.FILLED)
+                .build()).getId();
+    }
+
+    private void backfill() {
+        new TradeLogService(adapter).backfillRealizedPnl();
+    }
+
+    /**
+     * 집계 행 (ticker|손익|SELL 수|청산 BUY 수), DB 기준으로 읽도록 영속성 컨텍스트 비움
+     */
+    private List<String> snapshot() {
+        entityManager.flush();
+        entityManager.clear();
+        return realizedPnlRepository.findAll().stream()
+                .map(row -> row.getTicker() + "|" + row.getRealizedProfit().stripTrailingZeros().toPlainString()
+                        + "|" + row.getSellCount() + "|" + row.getClosedBuyCount())
+                .sorted()
+                .toList();
+    }
+}
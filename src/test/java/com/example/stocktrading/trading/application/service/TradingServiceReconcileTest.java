@@ -0,0 +1,189 @@
+package com.example.stocktrading.trading.application.service;
+
+import com.example.stocktrading.trading.application.port.out.*;
+import com.example.stocktrading.trading.domain.StockOrder;
+import com.example.stocktrading.trading.domain.TradeLog;
+import com.example.stocktrading.user.application.port.out.NotificationPort;
+import com.example.stocktrading.user.application.port.out.UserPort;
+import com.example.stocktrading.user.domain.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TradingServiceReconcileTest {
+
+    @Mock UserPort userPort;
+    @Mock TradeLogPort tradeLogPort;
+    @Mock TradingTargetPort tradingTargetPort;
+    @Mock BrokerApiPort brokerApiPort;
+    @Mock AiModelPort aiModelPort;
+    @Mock NotificationPort notificationPort;
+    @Mock MarketDataPort marketDataPort;
+
+    @InjectMocks TradingService tradingService;
+
+    private final User user = User.builder().userId(1L).username("tester").build();
+
+    @BeforeEach
+    void setUp() {
+        when(userPort.findAllByIds(any())).thenReturn(List.of(user));
+    }
+
+    @Test
+    void filledBuyIsMarkedFilled() {
+        TradeLog buy = pending(10L, StockOrder.OrderType.BUY, "0001", false);
+        givenExecutions(buy, new BrokerApiPort.OrderExecution("1", "AAPL", 1, 1, 0, BigDecimal.TEN));
+
+        tradingService.reconcileOrders();
+
+        verify(tradeLogPort).updateStatus(10L, TradeLog.OrderStatus.FILLED);
+        verify(brokerApiPort, never()).cancelOrder(any(), any());
+    }
+
+    @Test
+    void filledSellClosesEarlierBuys() {
+        TradeLog sell = pending(20L, StockOrder.OrderType.SELL, "0002", false);
+        givenExecutions(sell, new BrokerApiPort.OrderExecution("2", "AAPL", 3, 3, 0, BigDecimal.TEN));
+
+        tradingService.reconcileOrders();
+
+        verify(tradeLogPort).updateStatus(20L, TradeLog.OrderStatus.FILLED);
+        verify(tradeLogPort).closeFilledBuysBefore(1L, "AAPL", 20L);
+    }
+
+    @Test
+    void partialFillBeforeTimeoutWaits() {
+        TradeLog sell = pending(20L, StockOrder.OrderType.SELL, "0002", false);
+        givenExecutions(sell, new BrokerApiPort.OrderExecution("2", "AAPL", 3, 1, 2, BigDecimal.TEN));
+
+        tradingService.reconcileOrders();
+
+        verify(brokerApiPort, never()).cancelOrder(any(), any());
+        verify(tradeLogPort, never()).updateStatus(any(), any());
+    }
+
+    @Test
+    void partialSellAtTimeoutClosesOnlyFilledQuantity() {
+        TradeLog sell = pending(20L, StockOrder.OrderType.SELL, "0002", true);
+        givenExecutions(sell, new BrokerApiPort.OrderExecution("2", "AAPL", 3, 2, 1, BigDecimal.TEN));
+        when(brokerApiPort.cancelOrder(user, "0002")).thenReturn(new BrokerApiPort.CancelResult(true, "ok"));
+
+        tradingService.reconcileOrders();
+
+        verify(tradeLogPort).updateStatus(20L, TradeLog.OrderStatus.FILLED);
+        verify(tradeLogPort).closeOldestFilledBuysBefore(1L, "AAPL", 20L, 2);
+        verify(tradeLogPort, never()).closeFilledBuysBefore(any(), any(), any());
+    }
+
+    @Test
+    void partialFillWithFailedRemainderCancelStaysPending() {
+        TradeLog sell = pending(20L, StockOrder.OrderType.SELL, "0002", true);
+        givenExecutions(sell, new BrokerApiPort.OrderExecution("2", "AAPL", 3, 2, 1, BigDecimal.TEN));
+        when(brokerApiPort.cancelOrder(user, "0002")).thenReturn(new BrokerApiPort.CancelResult(false, "busy"));
+
+        tradingService.reconcileOrders();
+
+        verify(tradeLogPort, never()).updateStatus(any(), any());
+        verify(tradeLogPort, never()).closeOldestFilledBuysBefore(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void missingOrderBeforeTimeoutWaits() {
+        TradeLog buy = pending(10L, StockOrder.OrderType.BUY, "0001", false);
+        givenExecutions(buy);
+
+        tradingService.reconcileOrders();
+
+        verify(brokerApiPort, never()).cancelOrder(any(), any());
+        verify(tradeLogPort, never()).updateStatus(any(), any());
+    }
+
+    @Test
+    void missingOrderAtTimeoutFallsBackToCancelCheck() {
+        TradeLog buy = pending(10L, StockOrder.OrderType.BUY, "0001", true);
+        givenExecutions(buy);
+        when(brokerApiPort.cancelOrder(user, "0001")).thenReturn(new BrokerApiPort.CancelResult(true, "ok"));
+
+        tradingService.reconcileOrders();
+
+        verify(tradeLogPort).updateStatus(10L, TradeLog.OrderStatus.CANCELLED);
+        verify(tradeLogPort, never()).updateStatus(10L, TradeLog.OrderStatus.FAILED);
+    }
+
+    @Test
+    void openOrderAtTimeoutIsCancelled() {
+        TradeLog buy = pending(10L, StockOrder.OrderType.BUY, "0001", true);
+        givenExecutions(buy, new BrokerApiPort.OrderExecution("1", "AAPL", 1, 0, 1, null));
+        when(brokerApiPort.cancelOrder(user, "0001")).thenReturn(new BrokerApiPort.CancelResult(true, "ok"));
+
+        tradingService.reconcileOrders();
+
+        verify(tradeLogPort).updateStatus(10L, TradeLog.OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void openOrderWithFailedCancelStaysPending() {
+        TradeLog buy = pending(10L, StockOrder.OrderType.BUY, "0001", true);
+        givenExecutions(buy, new BrokerApiPort.OrderExecution("1", "AAPL", 1, 0, 1, null));
+        when(brokerApiPort.cancelOrder(user, "0001")).thenReturn(new BrokerApiPort.CancelResult(false, "busy"));
+
+        tradingService.reconcileOrders();
+
+        verify(tradeLogPort, never()).updateStatus(any(), any());
+    }
+
+    @Test
+    void rejectedOrderIsCancelled() {
+        TradeLog buy = pending(10L, StockOrder.OrderType.BUY, "0001", false);
+        givenExecutions(buy, new BrokerApiPort.OrderExecution("1", "AAPL", 1, 0, 0, null));
+
+        tradingService.reconcileOrders();
+
+        verify(tradeLogPort).updateStatus(10L, TradeLog.OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void brokerWithoutExecutionInquiryUsesCancelCheck() {
+        TradeLog buy = pending(10L, StockOrder.OrderType.BUY, "0001", true);
+        when(tradeLogPort.findPendingBefore(any())).thenReturn(List.of(buy));
+        when(brokerApiPort.supportsOrderExecutions(user)).thenReturn(false);
+        when(brokerApiPort.cancelOrder(user, "0001")).thenReturn(new BrokerApiPort.CancelResult(true, "ok"));
+
+        tradingService.reconcileOrders();
+
+        verify(brokerApiPort, never()).getOrderExecutions(any(), any());
+        verify(tradeLogPort).updateStatus(10L, TradeLog.OrderStatus.CANCELLED);
+    }
+
+    private void givenExecutions(TradeLog pending, BrokerApiPort.OrderExecution... executions) {
+        when(tradeLogPort.findPendingBefore(any())).thenReturn(List.of(pending));
+        when(brokerApiPort.supportsOrderExecutions(user)).thenReturn(true);
+        when(brokerApiPort.getOrderExecutions(eq(user), any())).thenReturn(List.of(executions));
+    }
+
+    private TradeLog pending(Long id, StockOrder.OrderType action, String orderId, boolean expired) {
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("Asia/Seoul"));
+        return TradeLog.builder()
+                .id(id)
+                .userId(1L)
+                .ticker("AAPL")
+                .action(action)
+                .price(BigDecimal.TEN)
+                .orderId(orderId)
+                .status(TradeLog.OrderStatus.PENDING)
+                .timestamp(expired ? now.minusMinutes(5) : now)
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.stocktrading.trading.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 상태 전이 반영, SELL 체결 시 이전 lot 전체 청산, 부분체결 시 오래된 lot부터 수량만큼 청산 확인
+ */
+class PositionStateTest {
+
+    private static final ZonedDateTime T0 = ZonedDateTime.of(2026, 10, 16, 10, 0, 0, 0, ZoneId.of("Asia/Seoul"));
+
+    @Test
+    void tracksPendingAndFilledTransitions() {
+        PositionState state = new PositionState();
+
+        state.apply(log(1L, StockOrder.OrderType.BUY, TradeLog.OrderStatus.PENDING, T0));
+        assertThat(state.hasPendingBuy()).isTrue();
+
+        state.apply(log(1L, StockOrder.OrderType.BUY, TradeLog.OrderStatus.FILLED, T0));
+        assertThat(state.hasPendingBuy()).isFalse();
+        assertThat(state.getHoldingCount()).isEqualTo(1);
+        assertThat(state.getOpenedAt()).isEqualTo(T0);
+
+        state.apply(log(2L, StockOrder.OrderType.SELL, TradeLog.OrderStatus.PENDING, T0.plusMinutes(1)));
+        assertThat(state.hasPendingSell()).isTrue();
+
+        state.apply(log(2L, StockOrder.OrderType.SELL, TradeLog.OrderStatus.CANCELLED, T0.plusMinutes(1)));
+        assertThat(state.hasPendingSell()).isFalse();
+        assertThat(state.isEmpty()).isFalse();
+    }
+
+    @Test
+    void closesOnlyLotsFilledBeforeSell() {
+        PositionState state = filled(1L, 2L, 4L);
+
+        assertThat(state.closeLotsBefore(3L)).isEqualTo(2);
+
+        assertThat(state.getHoldingCount()).isEqualTo(1);
+        assertThat(state.getOpenedAt()).isEqualTo(T0.plusMinutes(4));
+    }
+
+    @Test
+    void partialSellClosesOldestLotsUpToCount() {
+        PositionState state = filled(1L, 2L, 3L, 5L);
+
+        assertThat(state.closeOldestLotsBefore(4L, 2)).isEqualTo(2);
+
+        // 1, 2 청산 → 3(SELL 이전)과 5(SELL 이후) 유지
+        assertThat(state.getHoldingCount()).isEqualTo(2);
+        assertThat(state.getOpenedAt()).isEqualTo(T0.plusMinutes(3));
+    }
+
+    @Test
+    void partialSellNeverClosesLotsAfterSell() {
+        PositionState state = filled(1L, 5L);
+
+        assertThat(state.closeOldestLotsBefore(4L, 3)).isEqualTo(1);
+
+        assertThat(state.getHoldingCount()).isEqualTo(1);
+        assertThat(state.getOpenedAt()).isEqualTo(T0.plusMinutes(5));
+    }
+
+    private static PositionState filled(Long... ids) {
+        PositionState state = new PositionState();
+        for (Long id : ids) {
+            state.apply(log(id, StockOrder.OrderType.BUY, TradeLog.OrderStatus.FILLED, T0.plusMinutes(id)));
+        }
+        return state;
+    }
+
+    private static TradeLog log(Long id, StockOrder.OrderType action, TradeLog.OrderStatus status, ZonedDateTime timestamp) {
+        return TradeLog.builder()
+                .id(id)
+                .userId(1L)
+                .ticker("AAPL")
+                .action(action)
+                .status(status)
+                .timestamp(timestamp)
+                .build();
+    }
+}
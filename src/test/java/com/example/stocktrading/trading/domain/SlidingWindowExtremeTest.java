@@ -0,0 +1,91 @@
+package com.example.stocktrading.trading.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * window 밖 봉 제거, 진행중 봉 revision(상승/하락), 실시간 체결 + REST 분봉 혼합 입력 시 같은 봉 정규화 확인
+ */
+class SlidingWindowExtremeTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long T0 = 1_760_000_000_000L - Math.floorMod(1_760_000_000_000L, MINUTE);
+
+    @Test
+    void keepsMaxOfLastWindowBars() {
+        SlidingWindowExtreme high = SlidingWindowExtreme.high(3);
+
+        high.update(T0, 10);
+        high.update(T0 + MINUTE, 8);
+        high.update(T0 + 2 * MINUTE, 9);
+        assertThat(high.value()).isEqualTo(10);
+
+        // T0 봉이 window 밖으로 밀려남
+        high.update(T0 + 3 * MINUTE, 7);
+        assertThat(high.value()).isEqualTo(9);
+    }
+
+    @Test
+    void keepsMinForLowWindow() {
+        SlidingWindowExtreme low = SlidingWindowExtreme.low(2);
+
+        low.update(T0, 5);
+        low.update(T0 + MINUTE, 6);
+        assertThat(low.value()).isEqualTo(5);
+
+        low.update(T0 + 2 * MINUTE, 7);
+        assertThat(low.value()).isEqualTo(6);
+    }
+
+    @Test
+    void revisesInProgressBarUpAndDown() {
+        SlidingWindowExtreme high = SlidingWindowExtreme.high(3);
+        high.update(T0, 10);
+        high.update(T0 + MINUTE, 12);
+
+        high.update(T0 + MINUTE, 15);
+        assertThat(high.value()).isEqualTo(15);
+
+        // revision으로 값이 내려가면 이전 봉 최고가로 복원
+        high.update(T0 + MINUTE, 9);
+        assertThat(high.value()).isEqualTo(10);
+    }
+
+    @Test
+    void ignoresOlderBars() {
+        SlidingWindowExtreme high = SlidingWindowExtreme.high(3);
+        high.update(T0 + MINUTE, 5);
+
+        high.update(T0, 100);
+
+        assertThat(high.value()).isEqualTo(5);
+        assertThat(high.lastTimestamp()).isEqualTo(T0 + MINUTE);
+    }
+
+    @Test
+    void treatsTickAndRestTimestampsOfSameMinuteAsOneBar() {
+        SlidingWindowExtreme high = SlidingWindowExtreme.high(2);
+
+        // REST 분봉(진행중 봉 시각이 초 단위 포함) → 실시간 체결 barStart(분 절사)
+        CandleSeries rest = new CandleSeries(2);
+        rest.append(T0, 1, 10, 1, 1, 1);
+        rest.append(T0 + MINUTE + 42_000, 1, 11, 1, 1, 1);
+        high.updateAll(rest);
+        high.update(T0 + MINUTE, 13);
+
+        assertThat(high.lastTimestamp()).isEqualTo(T0 + MINUTE);
+        assertThat(high.value()).isEqualTo(13);
+
+        // 다음 봉 하나만 들어오면 T0 봉만 window 밖 → 같은 분이 2개 봉으로 쪼개졌다면 13도 밀려남
+        high.update(T0 + 2 * MINUTE + 5_000, 12);
+        assertThat(high.value()).isEqualTo(13);
+    }
+
+    @Test
+    void rejectsNonPositiveWindow() {
+        assertThatThrownBy(() -> SlidingWindowExtreme.high(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.stocktrading.trading.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * cursor encode/decode round-trip, URL-safe 인코딩, 잘못된 cursor 거절 확인
+ */
+class TradeLogPageTest {
+
+    @Test
+    void cursorRoundTripsTimestampAndId() {
+        ZonedDateTime timestamp = ZonedDateTime.of(2026, 10, 16, 15, 59, 30, 123_456_789, ZoneId.of("Asia/Seoul"));
+        TradeLog last = TradeLog.builder().id(42L).timestamp(timestamp).build();
+
+        String encoded = TradeLogPage.Cursor.of(last).encode();
+        TradeLogPage.Cursor decoded = TradeLogPage.Cursor.decode(encoded);
+
+        assertThat(decoded.timestamp()).isEqualTo(timestamp);
+        assertThat(decoded.id()).isEqualTo(42L);
+        assertThat(encoded).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThatThrownBy(() -> TradeLogPage.Cursor.decode("not a cursor!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("invalid cursor");
+        assertThatThrownBy(() -> TradeLogPage.Cursor.decode(encode("2026-10-16T15:59:30+09:00[Asia/Seoul]")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TradeLogPage.Cursor.decode(encode("2026-10-16T15:59:30+09:00[Asia/Seoul]|abc")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
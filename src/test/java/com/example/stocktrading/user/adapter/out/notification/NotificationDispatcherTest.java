@@ -0,0 +1,164 @@
+package com.example.stocktrading.user.adapter.out.notification;
+
+import com.example.stocktrading.user.application.port.out.UserPort;
+import com.example.stocktrading.user.domain.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Deque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 로컬 Telegram stand-in 서버 대상 coalescing / chat·봇 간격 / 429 재시도 확인
+ */
+class NotificationDispatcherTest {
+
+    private static final long TIMEOUT_MS = 5_000;
+    private static final long PER_CHAT_INTERVAL_MS = 400;
+    private static final int PER_BOT_PER_SECOND = 4; // 250ms
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BlockingQueue<Received> received = new LinkedBlockingQueue<>();
+    private final Deque<Integer> responseStatuses = new ConcurrentLinkedDeque<>();
+    private final UserPort userPort = mock(UserPort.class);
+
+    private HttpServer server;
+    private NotificationDispatcher dispatcher;
+
+    private record Received(long at, String path, String chatId, String text) {}
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            JsonNode body = objectMapper.readTree(exchange.getRequestBody().readAllBytes());
+            received.add(new Received(System.currentTimeMillis(), exchange.getRequestURI().getPath(),
+                    body.path("chat_id").asText(), body.path("text").asText()));
+
+            Integer status = responseStatuses.poll();
+            byte[] response = (status != null && status == 429
+                    ? "{\"ok\":false,\"error_code\":429,\"parameters\":{\"retry_after\":1}}"
+                    : "{\"ok\":true}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status != null ? status : 200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+
+        RestClient restClient = RestClient.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+        TelegramClient telegramClient = new TelegramClient(restClient, objectMapper);
+
+        dispatcher = new NotificationDispatcher(userPort, telegramClient, 100, 200,
+                PER_CHAT_INTERVAL_MS, PER_BOT_PER_SECOND, 3, 100);
+        dispatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.stop();
+        server.stop(0);
+    }
+
+    @Test
+    void coalescesMessagesWithinWindowIntoOneRequest() throws Exception {
+        givenUser(1L, "bot-a", "chat-1");
+
+        dispatcher.enqueue(1L, "first");
+        dispatcher.enqueue(1L, "second");
+        dispatcher.enqueue(1L, "third");
+
+        Received message = await();
+        assertThat(message.path()).isEqualTo("/botbot-a/sendMessage");
+        assertThat(message.chatId()).isEqualTo("chat-1");
+        assertThat(message.text()).isEqualTo("first\nsecond\nthird");
+        assertThat(received.poll(500, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void keepsPerChatInterval() throws Exception {
+        givenUser(1L, "bot-a", "chat-1");
+
+        dispatcher.enqueue(1L, "first");
+        Received first = await();
+        dispatcher.enqueue(1L, "second");
+        Received second = await();
+
+        assertThat(second.text()).isEqualTo("second");
+        assertThat(second.at() - first.at()).isGreaterThanOrEqualTo(PER_CHAT_INTERVAL_MS - 50);
+    }
+
+    @Test
+    void keepsPerBotIntervalAcrossChats() throws Exception {
+        givenUser(1L, "shared-bot", "chat-1");
+        givenUser(2L, "shared-bot", "chat-2");
+
+        dispatcher.enqueue(1L, "to chat 1");
+        dispatcher.enqueue(2L, "to chat 2");
+
+        Received first = await();
+        Received second = await();
+        assertThat(first.chatId()).isNotEqualTo(second.chatId());
+        assertThat(second.at() - first.at()).isGreaterThanOrEqualTo(1000 / PER_BOT_PER_SECOND - 50);
+    }
+
+    @Test
+    void retriesAfterTooManyRequests() throws Exception {
+        givenUser(1L, "bot-a", "chat-1");
+        responseStatuses.add(429);
+
+        dispatcher.enqueue(1L, "hello");
+
+        Received rejected = await();
+        Received retried = await();
+        assertThat(retried.text()).isEqualTo(rejected.text()).isEqualTo("hello");
+        assertThat(retried.at() - rejected.at()).isGreaterThanOrEqualTo(1000 - 50);
+        awaitSent(1);
+        assertThat(dispatcher.getMetrics().retried()).isEqualTo(1);
+    }
+
+    private void givenUser(Long userId, String botToken, String chatId) {
+        when(userPort.findById(userId)).thenReturn(Optional.of(User.builder()
+                .userId(userId)
+                .notificationEnabled(true)
+                .telegramBotToken(botToken)
+                .telegramChatId(chatId)
+                .build()));
+    }
+
+    // 응답 처리(sent 집계)는 서버 수신 직후 dispatcher 스레드에서 반영
+    private void awaitSent(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (dispatcher.getMetrics().sent() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(dispatcher.getMetrics().sent()).isEqualTo(expected);
+    }
+
+    private Received await() throws InterruptedException {
+        Received message = received.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        assertThat(message).as("Telegram request within %dms", TIMEOUT_MS).isNotNull();
+        return message;
+    }
+}